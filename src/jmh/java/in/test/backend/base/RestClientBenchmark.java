@@ -0,0 +1,81 @@
+package in.test.backend.base;
+
+import com.sun.net.httpserver.HttpServer;
+import in.test.backend.common.ServiceEndpoints;
+import in.test.backend.dtos.responseDto.SampleResponse;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Measures RestClient.getResponse against an in-process HTTP endpoint, so the result is
+ * framework overhead (spec building, logging, deserialization) plus loopback I/O only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestClientBenchmark {
+
+    private static final byte[] BODY = "{\"attribute1\":\"merchant\",\"attributes\":{\"k1\":\"v1\",\"k2\":\"v2\"}}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private RestClient restClient;
+    private RequestSpecification requestSpec;
+    private String baseUri;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/sample", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, BODY.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(BODY);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+
+        restClient = new RestClient();
+        baseUri = "http://127.0.0.1:" + server.getAddress().getPort();
+        requestSpec = given()
+                .baseUri(baseUri)
+                .basePath("/sample")
+                .contentType("application/json");
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public RequestSpecification buildSpec() {
+        return given()
+                .baseUri(baseUri)
+                .basePath(ServiceEndpoints.SAMPLE_ENDPOINT.getUri())
+                .contentType("application/json")
+                .header("X-App-Token", "token");
+    }
+
+    @Benchmark
+    public RequestSpecification templateSpec() {
+        return RequestTemplates.given(baseUri, ServiceEndpoints.SAMPLE_ENDPOINT);
+    }
+
+    @Benchmark
+    public SampleResponse getResponse() {
+        return restClient.getResponse(RequestType.GET, requestSpec, SampleResponse.class, 200);
+    }
+}
@@ -0,0 +1,56 @@
+package in.test.backend.dtos;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import in.test.backend.dtos.requestDto.SampleRequest;
+import in.test.backend.dtos.responseDto.SampleResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson binding of the sample DTOs as the attribute maps grow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBindingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int attributeCount;
+
+    private ObjectWriter requestWriter;
+    private ObjectReader responseReader;
+    private SampleRequest request;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        requestWriter = mapper.writerFor(SampleRequest.class);
+        responseReader = mapper.readerFor(SampleResponse.class);
+
+        Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put("attribute-" + i, "value-" + i);
+        }
+        request = SampleRequest.builder().attribute1("merchant").attribute2(attributes).build();
+        responseBytes = mapper.writeValueAsBytes(SampleResponse.builder().attribute1("merchant").attributes(attributes).build());
+    }
+
+    @Benchmark
+    public byte[] serializeRequest() throws Exception {
+        return requestWriter.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public SampleResponse deserializeResponse() throws Exception {
+        return responseReader.readValue(responseBytes);
+    }
+}
@@ -0,0 +1,42 @@
+package in.test.backend.listeners;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures RetryProperties lookups for each source in its priority order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetryPropertiesBenchmark {
+
+    @Setup
+    public void setUp() {
+        System.setProperty(RetryProperties.getSysDelayKey(), "5");
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(RetryProperties.getSysDelayKey());
+    }
+
+    @Benchmark
+    public int maxRetriesFromSuiteParameter() {
+        return RetryProperties.getMaxRetries("3");
+    }
+
+    @Benchmark
+    public int delayFromSystemProperty() {
+        return RetryProperties.getDelayInSeconds(null);
+    }
+
+    @Benchmark
+    public boolean retryEnabledDefault() {
+        return RetryProperties.isRetryEnabled(null);
+    }
+}
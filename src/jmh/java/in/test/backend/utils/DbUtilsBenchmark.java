@@ -0,0 +1,77 @@
+package in.test.backend.utils;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures DbUtils row mapping (list of maps vs. streamed rows) over an in-memory H2 table,
+ * so the numbers exclude network and server time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DbUtilsBenchmark {
+
+    private static final String QUERY = "SELECT id, merchant_id, attribute_key, attribute_value, updated_at FROM merchant_config";
+
+    @Param({"1000", "100000"})
+    private int rowCount;
+
+    private Connection connection;
+
+    @Setup
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:bench" + rowCount + ";DB_CLOSE_DELAY=-1");
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE merchant_config (id BIGINT PRIMARY KEY, merchant_id VARCHAR(64), "
+                    + "attribute_key VARCHAR(64), attribute_value VARCHAR(255), updated_at TIMESTAMP)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO merchant_config VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)")) {
+            for (int i = 0; i < rowCount; i++) {
+                insert.setLong(1, i);
+                insert.setString(2, "merchant-" + (i % 100));
+                insert.setString(3, "key-" + i);
+                insert.setString(4, "value-" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> executeQueryToMaps() throws Exception {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(QUERY)) {
+            return DbUtils.toMaps(rs);
+        }
+    }
+
+    @Benchmark
+    public void streamQueryRows(Blackhole blackhole) throws Exception {
+        Statement stmt = connection.createStatement();
+        ResultSet rs = stmt.executeQuery(QUERY);
+        // Pass no connection so the shared benchmark connection stays open when the stream closes
+        try (Stream<Row> rows = DbUtils.toStream(rs, stmt, null)) {
+            rows.forEach(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package in.test.backend.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import in.test.backend.common.ServiceEndpoints;
+import in.test.backend.dtos.responseDto.SampleResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures schema validation with the cached compiled schema against plain binding of the same bytes,
+ * i.e. the cost validation adds to every RestClient call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseValidatorsBenchmark {
+
+    @Param({"10", "1000"})
+    private int attributeCount;
+
+    private ObjectMapper mapper;
+    private ObjectReader responseReader;
+    private byte[] responseBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = new ObjectMapper();
+        responseReader = mapper.readerFor(SampleResponse.class);
+        Map<String, String> attributes = new HashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            attributes.put("attribute-" + i, "value-" + i);
+        }
+        responseBytes = mapper.writeValueAsBytes(SampleResponse.builder().attribute1("merchant").attributes(attributes).build());
+        // Compile the schema outside the measurement
+        ResponseValidators.hasSchema(ServiceEndpoints.SAMPLE_ENDPOINT);
+    }
+
+    @Benchmark
+    public SampleResponse bindOnly() throws Exception {
+        return responseReader.readValue(responseBytes);
+    }
+
+    @Benchmark
+    public SampleResponse validateAndBind() throws Exception {
+        JsonNode tree = mapper.readTree(responseBytes);
+        List<SchemaViolation> violations = ResponseValidators.validate(ServiceEndpoints.SAMPLE_ENDPOINT, tree);
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException(violations.toString());
+        }
+        return responseReader.readValue(tree);
+    }
+}
@@ -0,0 +1,136 @@
+package in.test.backend.base;
+
+import in.test.backend.utils.ConfigManager;
+import in.test.backend.utils.Threads;
+import io.restassured.config.HttpClientConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared, pooled HTTP connections for RestClient
+ * <p>
+ * Every RestAssured call gets the same Apache HTTP client, backed by one pooling connection manager,
+ * so connections and TLS sessions are reused across tests and threads instead of being opened per
+ * request. RestAssured only accepts the classic {@code DefaultHttpClient}, hence the 4.x pooling manager
+ * that it supports. Settings are read from the configuration:
+ * <ul>
+ *     <li>{@code restclient.pool.enabled} (default true): false keeps RestAssured's own client per request</li>
+ *     <li>{@code restclient.pool.maxTotal} and {@code restclient.pool.maxPerRoute}: connection limits</li>
+ *     <li>{@code restclient.pool.keepAlive}: how long an idle connection is kept when the server sends
+ *     no {@code Keep-Alive} timeout; a shorter server value wins</li>
+ *     <li>{@code restclient.pool.idleTimeout}: connections idle for longer are closed by a background
+ *     evictor every {@code restclient.pool.evictionInterval}</li>
+ *     <li>{@code timeout}: connect and read timeout</li>
+ * </ul>
+ */
+@Slf4j
+// RestAssured's HttpClientConfig factory only takes the deprecated 4.x client and connection manager
+@SuppressWarnings("deprecation")
+public class HttpConnectionPool {
+
+    // Configuration keys
+    private static final String ENABLED_KEY = "restclient.pool.enabled";
+    private static final String MAX_TOTAL_KEY = "restclient.pool.maxTotal";
+    private static final String MAX_PER_ROUTE_KEY = "restclient.pool.maxPerRoute";
+    private static final String KEEP_ALIVE_KEY = "restclient.pool.keepAlive";
+    private static final String IDLE_TIMEOUT_KEY = "restclient.pool.idleTimeout";
+    private static final String EVICTION_INTERVAL_KEY = "restclient.pool.evictionInterval";
+    private static final String TIMEOUT_KEY = "timeout";
+
+    // Default values
+    private static final int DEFAULT_MAX_TOTAL = 64;
+    private static final int DEFAULT_MAX_PER_ROUTE = 32;
+    private static final Duration DEFAULT_KEEP_ALIVE = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_EVICTION_INTERVAL = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final HttpConnectionPool INSTANCE = new HttpConnectionPool();
+
+    private final PoolingClientConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final ScheduledExecutorService evictor;
+
+    private HttpConnectionPool() {
+        int maxTotal = ConfigManager.getInt(MAX_TOTAL_KEY, DEFAULT_MAX_TOTAL);
+        int maxPerRoute = ConfigManager.getInt(MAX_PER_ROUTE_KEY, DEFAULT_MAX_PER_ROUTE);
+        long keepAliveMs = ConfigManager.getDuration(KEEP_ALIVE_KEY, DEFAULT_KEEP_ALIVE).toMillis();
+        long idleTimeoutMs = ConfigManager.getDuration(IDLE_TIMEOUT_KEY, DEFAULT_IDLE_TIMEOUT).toMillis();
+        long evictionIntervalMs = ConfigManager.getDuration(EVICTION_INTERVAL_KEY, DEFAULT_EVICTION_INTERVAL).toMillis();
+        int timeoutMs = (int) ConfigManager.getDuration(TIMEOUT_KEY, DEFAULT_TIMEOUT).toMillis();
+
+        connectionManager = new PoolingClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(Math.min(maxPerRoute, maxTotal));
+
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, timeoutMs);
+        HttpConnectionParams.setSoTimeout(params, timeoutMs);
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        httpClient = new DefaultHttpClient(connectionManager, params);
+        httpClient.setKeepAliveStrategy(keepAliveStrategy(keepAliveMs));
+
+        evictor = Executors.newSingleThreadScheduledExecutor(Threads.daemonFactory("rest-client-pool-evictor-"));
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }, evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+
+        log.debug("HTTP connection pool: maxTotal={}, maxPerRoute={}, keepAlive={} ms, idleTimeout={} ms, timeout={} ms",
+                maxTotal, maxPerRoute, keepAliveMs, idleTimeoutMs, timeoutMs);
+    }
+
+    public static HttpConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true when RestClient should route its calls through the shared pool
+     */
+    public static boolean isEnabled() {
+        return ConfigManager.getBoolean(ENABLED_KEY, true);
+    }
+
+    /**
+     * @return the given RestAssured client configuration, reusing the pooled client for every call
+     */
+    public HttpClientConfig applyTo(HttpClientConfig config) {
+        return config.reuseHttpClientInstance().httpClientFactory(() -> httpClient);
+    }
+
+    /**
+     * Connections leased to requests, idle in the pool and requests waiting for one, across all routes
+     */
+    public PoolStats getTotalStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes every pooled connection; calls made afterwards fail
+     */
+    public void shutdown() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long keepAliveMs) {
+        return (HttpResponse response, HttpContext context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMs) : keepAliveMs;
+        };
+    }
+}
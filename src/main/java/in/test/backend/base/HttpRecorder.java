@@ -0,0 +1,203 @@
+package in.test.backend.base;
+
+import in.test.backend.utils.ConfigManager;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Record/replay of HTTP exchanges for RestClient
+ * <p>
+ * Mode is taken from the {@code restclient.http.mode} configuration key; an unknown mode is logged and
+ * {@code live} is used:
+ * <ul>
+ *     <li>{@code live} (default): requests go to the network, nothing is recorded</li>
+ *     <li>{@code record}: requests go to the network and every exchange is appended to the
+ *     recording at {@code restclient.http.recording}, which is created when missing</li>
+ *     <li>{@code replay}: requests are answered from the recording without touching the network;
+ *     a request that was never recorded fails with {@link ReplayMissException}</li>
+ * </ul>
+ * A recording that cannot be opened does not break class initialization: every recorded or replayed
+ * call then fails with an {@link IllegalStateException} that carries the cause.
+ * Requests are matched on method, URI with sorted query parameters, sorted form parameters and a
+ * SHA-256 of the body; headers are ignored so rotating tokens do not break replay. When the same
+ * request was recorded several times, replays return the recorded responses in order and repeat
+ * the last one afterwards.
+ */
+@Slf4j
+public class HttpRecorder implements Filter {
+
+    public enum Mode {
+        LIVE,
+        RECORD,
+        REPLAY
+    }
+
+    // Configuration keys
+    private static final String MODE_KEY = "restclient.http.mode";
+    private static final String RECORDING_KEY = "restclient.http.recording";
+
+    private static final String DEFAULT_RECORDING = "target/recordings/http-recording.log";
+
+    // Decoded by RestAssured before recording, so replaying them would corrupt the body
+    private static final List<String> SKIPPED_HEADERS = Arrays.asList("content-encoding", "transfer-encoding");
+
+    private static final HttpRecorder INSTANCE = new HttpRecorder();
+
+    private final Mode mode;
+    private final RecordingLog recording;
+    // Why the recording could not be opened, rethrown on every call instead of from class initialization
+    private final RuntimeException openFailure;
+    private final Map<String, AtomicInteger> replayCursors = new ConcurrentHashMap<>();
+
+    private HttpRecorder() {
+        mode = ConfigManager.getEnum(MODE_KEY, Mode.LIVE);
+        Path location = Paths.get(ConfigManager.get(RECORDING_KEY, DEFAULT_RECORDING).trim());
+        RecordingLog opened = null;
+        RuntimeException failure = null;
+        try {
+            switch (mode) {
+                case RECORD:
+                    opened = RecordingLog.openForRecording(location);
+                    log.info("Recording HTTP exchanges to {}", location.toAbsolutePath());
+                    break;
+                case REPLAY:
+                    opened = RecordingLog.open(location);
+                    break;
+                default:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            log.error("HTTP {} mode unavailable, recorded calls will fail: {}", mode.name().toLowerCase(Locale.ROOT), e.getMessage());
+            failure = e;
+        }
+        recording = opened;
+        openFailure = failure;
+    }
+
+    public static HttpRecorder getInstance() {
+        return INSTANCE;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return true when the filter has to be added to outgoing requests
+     */
+    public boolean isActive() {
+        return mode != Mode.LIVE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (openFailure != null) {
+            throw new IllegalStateException("HTTP " + mode.name().toLowerCase(Locale.ROOT) + " mode unavailable: "
+                    + openFailure.getMessage(), openFailure);
+        }
+        String key = requestKey(requestSpec);
+        if (mode == Mode.REPLAY) {
+            return replay(key);
+        }
+        Response response = ctx.next(requestSpec, responseSpec);
+        if (mode == Mode.RECORD) {
+            List<Header> headers = response.getHeaders().asList().stream()
+                    .filter(header -> !SKIPPED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+            recording.append(key, new RecordingLog.RecordedResponse(response.getStatusCode(), response.getStatusLine(),
+                    new Headers(headers), response.asByteArray()));
+        }
+        return response;
+    }
+
+    private Response replay(String key) {
+        long[] offsets = recording.find(key);
+        if (offsets.length == 0) {
+            throw new ReplayMissException(key, recording.getLogFile());
+        }
+        int call = replayCursors.computeIfAbsent(key, ignored -> new AtomicInteger()).getAndIncrement();
+        RecordingLog.RecordedResponse recorded = recording.read(offsets[Math.min(call, offsets.length - 1)]);
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(recorded.getStatusCode())
+                .setStatusLine(recorded.getStatusLine())
+                .setHeaders(recorded.getHeaders())
+                .setBody(recorded.getBody());
+        String contentType = recorded.getHeaders().getValue("Content-Type");
+        if (contentType != null) {
+            builder.setContentType(contentType);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Normalized request identity: method, URI with sorted query, sorted form parameters and body digest
+     */
+    static String requestKey(FilterableRequestSpecification requestSpec) {
+        StringBuilder key = new StringBuilder()
+                .append(requestSpec.getMethod().toUpperCase(Locale.ROOT))
+                .append(' ')
+                .append(normalizeUri(requestSpec.getURI()));
+        Map<String, ?> formParams = requestSpec.getFormParams();
+        if (formParams != null && !formParams.isEmpty()) {
+            key.append(" form:").append(new TreeMap<>(formParams));
+        }
+        byte[] body = bodyBytes(requestSpec.getBody());
+        if (body.length > 0) {
+            key.append(" body:").append(sha256(body));
+        }
+        return key.toString();
+    }
+
+    private static String normalizeUri(String uri) {
+        int queryStart = uri.indexOf('?');
+        if (queryStart < 0) {
+            return uri;
+        }
+        String query = Arrays.stream(uri.substring(queryStart + 1).split("&"))
+                .filter(parameter -> !parameter.isEmpty())
+                .sorted()
+                .collect(Collectors.joining("&"));
+        return uri.substring(0, queryStart) + (query.isEmpty() ? "" : "?" + query);
+    }
+
+    private static byte[] bodyBytes(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package in.test.backend.base;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import in.test.backend.interfaces.HttpTransport;
+import in.test.backend.utils.ConfigManager;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Sends requests with {@link HttpClient}, negotiating HTTP/2 where the server supports it
+ * <p>
+ * One client is shared by every call, so concurrent requests to a host are multiplexed as streams over
+ * a few connections instead of holding a connection each, and {@link #executeAsync} sends without a
+ * waiting thread. The specification is read through RestAssured's query API: URI with path and query
+ * parameters, headers, cookies, content type and body (or form parameters). RestAssured filters and
+ * multipart bodies are not supported by this engine; RestClient sends a specification that carries
+ * filters through {@link RestAssuredTransport} instead.
+ * <p>
+ * Settings: {@code restclient.jdk.httpVersion} ({@code HTTP_2} by default, {@code HTTP_1_1} to opt out)
+ * and {@code timeout} for both the connect and the request timeout.
+ */
+@Slf4j
+public final class JdkHttpTransport implements HttpTransport {
+
+    public static final String NAME = "jdk";
+
+    // Configuration keys
+    private static final String HTTP_VERSION_KEY = "restclient.jdk.httpVersion";
+    private static final String TIMEOUT_KEY = "timeout";
+
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    // Managed by HttpClient itself; setting them is rejected
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private static final JdkHttpTransport INSTANCE = new JdkHttpTransport();
+
+    private final HttpClient client;
+    private final Duration timeout;
+
+    private JdkHttpTransport() {
+        timeout = ConfigManager.getDuration(TIMEOUT_KEY, DEFAULT_TIMEOUT);
+        HttpClient.Version version = HttpClient.Version.valueOf(
+                ConfigManager.get(HTTP_VERSION_KEY, HttpClient.Version.HTTP_2.name()).trim().toUpperCase(Locale.ROOT));
+        client = HttpClient.newBuilder()
+                .version(version)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        log.debug("JDK HTTP transport using {}, timeout {} ms", version, timeout.toMillis());
+    }
+
+    public static JdkHttpTransport getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response execute(RequestType requestType, RequestSpecification requestSpec) {
+        try {
+            return toResponse(client.send(toRequest(requestType, requestSpec), HttpResponse.BodyHandlers.ofByteArray()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(requestType + " request failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(requestType + " request interrupted", e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Response> executeAsync(RequestType requestType, RequestSpecification requestSpec,
+                                                    Executor executor) {
+        // Hand the response over to the caller's executor so its stages never run on the client's threads
+        return client.sendAsync(toRequest(requestType, requestSpec), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApplyAsync(JdkHttpTransport::toResponse, executor);
+    }
+
+    private HttpRequest toRequest(RequestType requestType, RequestSpecification requestSpec) {
+        if (!(requestSpec instanceof FilterableRequestSpecification)) {
+            throw new IllegalArgumentException("Unsupported request specification: " + requestSpec.getClass().getName());
+        }
+        QueryableRequestSpecification query = SpecificationQuerier.query(requestSpec);
+        if (query.getMultiPartParams() != null && !query.getMultiPartParams().isEmpty()) {
+            throw new UnsupportedOperationException("Multipart requests need the " + RestAssuredTransport.NAME + " transport");
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(((FilterableRequestSpecification) requestSpec).getURI()))
+                .timeout(timeout);
+        boolean contentTypeSet = false;
+        for (Header header : query.getHeaders()) {
+            String name = header.getName().toLowerCase(Locale.ROOT);
+            if (RESTRICTED_HEADERS.contains(name)) {
+                continue;
+            }
+            contentTypeSet |= "content-type".equals(name);
+            builder.header(header.getName(), header.getValue());
+        }
+        if (!contentTypeSet && query.getContentType() != null) {
+            builder.header("Content-Type", query.getContentType());
+        }
+        if (query.getCookies() != null && query.getCookies().exist()) {
+            builder.header("Cookie", query.getCookies().asList().stream()
+                    .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                    .collect(Collectors.joining("; ")));
+        }
+        byte[] body = bodyOf(query);
+        HttpRequest.BodyPublisher publisher = body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body);
+        return builder.method(requestType.name(), publisher).build();
+    }
+
+    private static byte[] bodyOf(QueryableRequestSpecification query) {
+        Object body = query.getBody();
+        if (body == null) {
+            Map<String, String> formParams = query.getFormParams();
+            if (formParams == null || formParams.isEmpty()) {
+                return new byte[0];
+            }
+            return formParams.entrySet().stream()
+                    .map(param -> URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8) + "="
+                            + URLEncoder.encode(String.valueOf(param.getValue()), StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("&"))
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return RestClient.objectMapper().writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize request body " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static Response toResponse(HttpResponse<byte[]> response) {
+        List<Header> headers = new ArrayList<>();
+        response.headers().map().forEach((name, values) -> {
+            // HTTP/2 pseudo headers such as :status are not headers to RestAssured
+            if (!name.startsWith(":")) {
+                values.forEach(value -> headers.add(new Header(name, value)));
+            }
+        });
+        String version = response.version() == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+        ResponseBuilder builder = new ResponseBuilder()
+                .setStatusCode(response.statusCode())
+                .setStatusLine(version + " " + response.statusCode())
+                .setHeaders(new Headers(headers))
+                .setBody(response.body());
+        response.headers().firstValue("Content-Type").ifPresent(builder::setContentType);
+        return builder.build();
+    }
+}
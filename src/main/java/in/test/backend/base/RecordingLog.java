@@ -0,0 +1,479 @@
+package in.test.backend.base;
+
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only file of recorded HTTP exchanges
+ * <p>
+ * The log holds one length-prefixed record per exchange: request key, status, headers and body.
+ * A sidecar {@code .idx} file gets a 16 byte (key hash, offset) entry per record, so opening a
+ * recording for replay reads only the index and memory-maps the log; bodies are copied out only
+ * when a matching request is replayed. Entries missing from the index (an interrupted recording)
+ * are rebuilt by scanning the tail of the log, both when a recording is opened for replay and when
+ * recording resumes; a record cut off by the interruption is dropped before new ones are appended.
+ */
+@Slf4j
+public final class RecordingLog implements Closeable {
+
+    private static final long MAGIC = 0x5245434F52444C31L; // "RECORDL1"
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES * 2;
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    private final Path logFile;
+
+    // Record mode
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private long writePosition;
+
+    // Replay mode
+    private final MappedByteBuffer[] segments;
+    private final long[] hashes;
+    private final long[] offsets;
+    private final int[] slots;
+
+    private RecordingLog(Path logFile, FileChannel logChannel, FileChannel indexChannel, long writePosition) {
+        this.logFile = logFile;
+        this.logChannel = logChannel;
+        this.indexChannel = indexChannel;
+        this.writePosition = writePosition;
+        this.segments = null;
+        this.hashes = null;
+        this.offsets = null;
+        this.slots = null;
+    }
+
+    private RecordingLog(Path logFile, MappedByteBuffer[] segments, long[] hashes, long[] offsets, int count) {
+        this.logFile = logFile;
+        this.logChannel = null;
+        this.indexChannel = null;
+        this.segments = segments;
+        this.hashes = Arrays.copyOf(hashes, count);
+        this.offsets = Arrays.copyOf(offsets, count);
+        this.slots = buildSlots(this.hashes);
+    }
+
+    /**
+     * Opens a recording for appending, creating it when there is none at the location
+     */
+    public static RecordingLog openForRecording(Path logFile) {
+        FileChannel logChannel = null;
+        FileChannel indexChannel = null;
+        try {
+            Path parent = logFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            indexChannel = FileChannel.open(indexFile(logFile), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long size = logChannel.size();
+            if (size == 0) {
+                indexChannel.truncate(0);
+                writeFully(logChannel, ByteBuffer.allocate(Long.BYTES).putLong(MAGIC).flip(), 0);
+                return new RecordingLog(logFile, logChannel, indexChannel, Long.BYTES);
+            }
+            FileChannel channel = logChannel;
+            Index index = readIndex(logFile, indexChannel, new LogReader() {
+                @Override
+                public int readInt(long position) throws IOException {
+                    return readFully(channel, position, Integer.BYTES).getInt();
+                }
+
+                @Override
+                public long readLong(long position) throws IOException {
+                    return readFully(channel, position, Long.BYTES).getLong();
+                }
+            }, size);
+            // Drop a record cut off by an interrupted run and the index entries past the valid ones
+            logChannel.truncate(index.end);
+            indexChannel.truncate((long) index.indexed * INDEX_ENTRY_BYTES);
+            for (int i = index.indexed; i < index.count; i++) {
+                ByteBuffer entry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).putLong(index.hashes[i]).putLong(index.offsets[i]).flip();
+                writeFully(indexChannel, entry, (long) i * INDEX_ENTRY_BYTES);
+            }
+            log.info("Appending to recording {} with {} exchanges", logFile, index.count);
+            return new RecordingLog(logFile, logChannel, indexChannel, index.end);
+        } catch (IOException e) {
+            closeQuietly(logChannel);
+            closeQuietly(indexChannel);
+            throw new RuntimeException("Failed to open recording: " + logFile, e);
+        } catch (RuntimeException e) {
+            closeQuietly(logChannel);
+            closeQuietly(indexChannel);
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an existing recording read-only for replay
+     */
+    public static RecordingLog open(Path logFile) {
+        if (!Files.isRegularFile(logFile)) {
+            throw new IllegalStateException("Recording not found: " + logFile.toAbsolutePath()
+                    + " - run once with restclient.http.mode=record to create it");
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i * SEGMENT_BYTES;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_BYTES, size - position));
+            }
+            Path indexFile = indexFile(logFile);
+            Index index;
+            if (Files.isRegularFile(indexFile)) {
+                try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                    index = readIndex(logFile, indexChannel, mappedReader(segments), size);
+                }
+            } else {
+                index = readIndex(logFile, null, mappedReader(segments), size);
+            }
+            log.info("Opened recording {} with {} exchanges", logFile, index.count);
+            return new RecordingLog(logFile, segments, index.hashes, index.offsets, index.count);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open recording: " + logFile, e);
+        }
+    }
+
+    /**
+     * Reads the index entries that point at complete records, then recovers the records appended
+     * after the last of them
+     * @param indexChannel the sidecar index, null when there is none
+     * @param size         size of the log in bytes
+     */
+    private static Index readIndex(Path logFile, FileChannel indexChannel, LogReader reader, long size) throws IOException {
+        if (size < Long.BYTES || reader.readLong(0) != MAGIC) {
+            throw new IllegalStateException("Not a recording file: " + logFile.toAbsolutePath());
+        }
+        long[] hashes = new long[1024];
+        long[] offsets = new long[1024];
+        int count = 0;
+        long indexedEnd = Long.BYTES;
+        if (indexChannel != null) {
+            long entries = indexChannel.size() / INDEX_ENTRY_BYTES;
+            if (entries > 0) {
+                // Read rather than mapped, so the index can be truncated afterwards when recording resumes
+                ByteBuffer index = readFully(indexChannel, 0, (int) (entries * INDEX_ENTRY_BYTES));
+                hashes = new long[(int) entries + 1024];
+                offsets = new long[(int) entries + 1024];
+                for (int i = 0; i < entries; i++) {
+                    hashes[count] = index.getLong();
+                    offsets[count] = index.getLong();
+                    count++;
+                }
+            }
+            // Offsets grow with every append, so only the newest entries can point past a truncated log
+            while (count > 0 && recordEnd(reader, offsets[count - 1], size) > size) {
+                count--;
+            }
+            if (count > 0) {
+                indexedEnd = recordEnd(reader, offsets[count - 1], size);
+            }
+        }
+        int indexed = count;
+
+        // Recover records appended after the last index entry
+        long position = indexedEnd;
+        while (position + Integer.BYTES + Long.BYTES <= size) {
+            int length = reader.readInt(position);
+            if (length <= 0 || position + Integer.BYTES + length > size) {
+                break;
+            }
+            if (count == hashes.length) {
+                hashes = Arrays.copyOf(hashes, count * 2);
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            hashes[count] = reader.readLong(position + Integer.BYTES);
+            offsets[count] = position;
+            count++;
+            position += Integer.BYTES + length;
+        }
+        if (count > indexed) {
+            log.warn("Recovered {} exchanges missing from the index of {}", count - indexed, logFile);
+        }
+        return new Index(hashes, offsets, count, indexed, position);
+    }
+
+    private static long recordEnd(LogReader reader, long offset, long size) throws IOException {
+        if (offset + Integer.BYTES > size) {
+            return Long.MAX_VALUE;
+        }
+        return offset + Integer.BYTES + reader.readInt(offset);
+    }
+
+    private static LogReader mappedReader(MappedByteBuffer[] segments) {
+        return new LogReader() {
+            @Override
+            public int readInt(long position) {
+                return RecordingLog.readInt(segments, position);
+            }
+
+            @Override
+            public long readLong(long position) {
+                return RecordingLog.readLong(segments, position);
+            }
+        };
+    }
+
+    static Path indexFile(Path logFile) {
+        return Paths.get(logFile.toString() + ".idx");
+    }
+
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    public int size() {
+        return hashes == null ? 0 : hashes.length;
+    }
+
+    /**
+     * Appends one exchange; safe to call from concurrent requests
+     */
+    public synchronized void append(String key, RecordedResponse response) {
+        if (logChannel == null) {
+            throw new IllegalStateException("Recording " + logFile + " is open for replay only");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] statusLine = bytes(response.getStatusLine());
+        List<byte[]> headerBytes = new ArrayList<>();
+        int length = Long.BYTES + Integer.BYTES + keyBytes.length + Integer.BYTES + Integer.BYTES + statusLine.length
+                + Integer.BYTES + Integer.BYTES + response.getBody().length;
+        for (Header header : response.getHeaders()) {
+            byte[] name = bytes(header.getName());
+            byte[] value = bytes(header.getValue());
+            headerBytes.add(name);
+            headerBytes.add(value);
+            length += Integer.BYTES * 2 + name.length + value.length;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + length);
+        record.putInt(length);
+        record.putLong(hash(keyBytes));
+        putBytes(record, keyBytes);
+        record.putInt(response.getStatusCode());
+        putBytes(record, statusLine);
+        record.putInt(headerBytes.size() / 2);
+        headerBytes.forEach(value -> putBytes(record, value));
+        putBytes(record, response.getBody());
+        record.flip();
+
+        ByteBuffer indexEntry = ByteBuffer.allocate(INDEX_ENTRY_BYTES).putLong(hash(keyBytes)).putLong(writePosition).flip();
+        try {
+            writeFully(logChannel, record, writePosition);
+            writeFully(indexChannel, indexEntry, indexChannel.size());
+            writePosition += record.limit();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append to recording: " + logFile, e);
+        }
+    }
+
+    /**
+     * @return offsets of every exchange recorded for the key, in recording order
+     */
+    public long[] find(String key) {
+        if (slots == null) {
+            throw new IllegalStateException("Recording " + logFile + " is open for recording only");
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        long hash = hash(keyBytes);
+        long[] matches = new long[4];
+        int count = 0;
+        int mask = slots.length - 1;
+        // Entries were inserted in recording order, so the probe sequence visits them in that order
+        for (int slot = spread(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = slots[slot] - 1;
+            if (hashes[entry] == hash && Arrays.equals(keyBytes, readKey(offsets[entry]))) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = offsets[entry];
+            }
+        }
+        return count == matches.length ? matches : Arrays.copyOf(matches, count);
+    }
+
+    public RecordedResponse read(long offset) {
+        ByteBuffer record = ByteBuffer.wrap(readBytes(segments, offset + Integer.BYTES, readInt(segments, offset)));
+        record.getLong();
+        record.position(record.position() + Integer.BYTES + record.getInt(record.position()));
+        int statusCode = record.getInt();
+        String statusLine = string(getBytes(record));
+        int headerCount = record.getInt();
+        List<Header> headers = new ArrayList<>(headerCount);
+        for (int i = 0; i < headerCount; i++) {
+            headers.add(new Header(string(getBytes(record)), string(getBytes(record))));
+        }
+        return new RecordedResponse(statusCode, statusLine, new Headers(headers), getBytes(record));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (logChannel != null) {
+            logChannel.close();
+            indexChannel.close();
+        }
+    }
+
+    private byte[] readKey(long offset) {
+        long keyPosition = offset + Integer.BYTES + Long.BYTES;
+        return readBytes(segments, keyPosition + Integer.BYTES, readInt(segments, keyPosition));
+    }
+
+    private static int[] buildSlots(long[] hashes) {
+        int capacity = Integer.highestOneBit(Math.max(hashes.length, 8) * 2 - 1) << 1;
+        int[] slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry = 0; entry < hashes.length; entry++) {
+            int slot = spread(hashes[entry]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
+        return slots;
+    }
+
+    private static int spread(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    // 64-bit FNV-1a
+    static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int readInt(MappedByteBuffer[] segments, long position) {
+        return ByteBuffer.wrap(readBytes(segments, position, Integer.BYTES)).getInt();
+    }
+
+    private static long readLong(MappedByteBuffer[] segments, long position) {
+        return ByteBuffer.wrap(readBytes(segments, position, Long.BYTES)).getLong();
+    }
+
+    // Absolute reads only, so concurrent replays never share a buffer position
+    private static byte[] readBytes(MappedByteBuffer[] segments, long position, int length) {
+        byte[] result = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long current = position + copied;
+            MappedByteBuffer segment = segments[(int) (current / SEGMENT_BYTES)];
+            int segmentOffset = (int) (current % SEGMENT_BYTES);
+            int chunk = Math.min(length - copied, segment.limit() - segmentOffset);
+            segment.get(segmentOffset, result, copied, chunk);
+            copied += chunk;
+        }
+        return result;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of recording at " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close recording channel: {}", e.getMessage());
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Positioned reads over the log: memory-mapped for replay, through the channel when appending
+    private interface LogReader {
+        int readInt(long position) throws IOException;
+
+        long readLong(long position) throws IOException;
+    }
+
+    /**
+     * Records found in a log: the first {@code indexed} came from the index file, the rest were recovered
+     */
+    private static final class Index {
+
+        private final long[] hashes;
+        private final long[] offsets;
+        private final int count;
+        private final int indexed;
+        // End of the last complete record
+        private final long end;
+
+        private Index(long[] hashes, long[] offsets, int count, int indexed, long end) {
+            this.hashes = hashes;
+            this.offsets = offsets;
+            this.count = count;
+            this.indexed = indexed;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Response data as stored in the recording
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class RecordedResponse {
+        private final int statusCode;
+        private final String statusLine;
+        private final Headers headers;
+        private final byte[] body;
+    }
+}
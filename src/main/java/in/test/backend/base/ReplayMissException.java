@@ -0,0 +1,20 @@
+package in.test.backend.base;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+/**
+ * Raised in replay mode when the recording holds no exchange for a request
+ */
+@Getter
+public class ReplayMissException extends RuntimeException {
+
+    private final String requestKey;
+
+    public ReplayMissException(String requestKey, Path recording) {
+        super("No recorded response for [" + requestKey + "] in " + recording.toAbsolutePath()
+                + " - re-record with restclient.http.mode=record or run with restclient.http.mode=live");
+        this.requestKey = requestKey;
+    }
+}
@@ -0,0 +1,237 @@
+package in.test.backend.base;
+
+import in.test.backend.utils.ConfigManager;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Request/response logging for RestClient
+ * <p>
+ * Mode is taken from the {@code restclient.log.mode} configuration key (a system property or a config file);
+ * an unknown mode is logged and {@code console} is used:
+ * <ul>
+ *     <li>{@code console} (default): RestAssured {@code log().all()} and full bodies on stdout, as before</li>
+ *     <li>{@code async}: one summary line per call through SLF4J; headers and bodies (truncated to
+ *     {@code restclient.log.maxBodyChars}, sensitive headers redacted) only for failed calls and for
+ *     1 in {@code restclient.log.sampleRate} calls. Records go through a bounded queue drained by a
+ *     background thread, and are dropped and counted when the queue is full, so request threads
+ *     never wait on I/O.</li>
+ *     <li>{@code off}: nothing is logged</li>
+ * </ul>
+ */
+@Slf4j
+public class RequestLogger {
+
+    public enum Mode {
+        CONSOLE,
+        ASYNC,
+        OFF
+    }
+
+    // Configuration keys
+    private static final String MODE_KEY = "restclient.log.mode";
+    private static final String MAX_BODY_CHARS_KEY = "restclient.log.maxBodyChars";
+    private static final String SAMPLE_RATE_KEY = "restclient.log.sampleRate";
+    private static final String REDACT_HEADERS_KEY = "restclient.log.redactHeaders";
+    private static final String QUEUE_SIZE_KEY = "restclient.log.queueSize";
+
+    // Default values
+    private static final int DEFAULT_MAX_BODY_CHARS = 2048;
+    private static final int DEFAULT_SAMPLE_RATE = 0;
+    private static final String DEFAULT_REDACT_HEADERS = "Authorization,Proxy-Authorization,Cookie,Set-Cookie,X-App-Token";
+    private static final int DEFAULT_QUEUE_SIZE = 10_000;
+
+    private static final String REDACTED = "***";
+
+    private static final RequestLogger INSTANCE = new RequestLogger();
+
+    private final Mode mode;
+    private final int maxBodyChars;
+    private final int sampleRate;
+    private final Set<String> redactedHeaders;
+    private final BlockingQueue<LogRecord> queue;
+    private final LongAdder dropped = new LongAdder();
+
+    private RequestLogger() {
+        mode = ConfigManager.getEnum(MODE_KEY, Mode.CONSOLE);
+        maxBodyChars = getInt(MAX_BODY_CHARS_KEY, DEFAULT_MAX_BODY_CHARS);
+        sampleRate = getInt(SAMPLE_RATE_KEY, DEFAULT_SAMPLE_RATE);
+        redactedHeaders = Arrays.stream(ConfigManager.get(REDACT_HEADERS_KEY, DEFAULT_REDACT_HEADERS).split(","))
+                .map(header -> header.trim().toLowerCase(Locale.ROOT))
+                .filter(header -> !header.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        queue = new ArrayBlockingQueue<>(getInt(QUEUE_SIZE_KEY, DEFAULT_QUEUE_SIZE));
+        if (mode == Mode.ASYNC) {
+            Thread writer = new Thread(this::drain, "rest-client-log-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+    }
+
+    public static RequestLogger getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true when RestClient should keep its RestAssured console logging
+     */
+    public boolean isConsole() {
+        return mode == Mode.CONSOLE;
+    }
+
+    /**
+     * Queues a log record for a finished call
+     * @param requestType   HTTP Method used
+     * @param requestSpec   request specification that was sent, may be null
+     * @param response      response received, null when the call failed without one
+     * @param elapsedNanos  call duration
+     * @param failure       failure description, null when the call succeeded
+     */
+    public void logExchange(RequestType requestType, RequestSpecification requestSpec, Response response,
+                            long elapsedNanos, String failure) {
+        if (mode != Mode.ASYNC) {
+            return;
+        }
+        QueryableRequestSpecification query = requestSpec == null ? null : SpecificationQuerier.query(requestSpec);
+        LogRecord record = new LogRecord();
+        record.summary = requestType + " " + (query == null ? "<unknown>" : query.getURI())
+                + " -> " + (response == null ? "no response" : response.getStatusCode())
+                + String.format(" in %.1f ms", elapsedNanos / 1_000_000.0)
+                + (response == null ? "" : " (" + response.asByteArray().length + " bytes)")
+                + (failure == null ? "" : ": " + failure);
+        record.failed = failure != null;
+        if (record.failed || isSampled()) {
+            if (query != null) {
+                record.requestHeaders = redact(query.getHeaders());
+                record.requestBody = truncate(query.getBody());
+            }
+            if (response != null) {
+                record.responseHeaders = redact(response.getHeaders());
+                record.responseBody = truncate(response.asByteArray());
+            }
+        }
+        if (!queue.offer(record)) {
+            dropped.increment();
+        }
+    }
+
+    private boolean isSampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    private void drain() {
+        long reportedDrops = 0;
+        while (true) {
+            try {
+                LogRecord record = queue.take();
+                if (record.failed) {
+                    log.warn(record.format());
+                } else {
+                    log.info(record.format());
+                }
+                long drops = dropped.sum();
+                if (drops > reportedDrops) {
+                    log.warn("Request log queue full, {} records dropped so far", drops);
+                    reportedDrops = drops;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // A bad record must not stop the writer
+                log.error("Failed to write request log record: {}", e.getMessage());
+            }
+        }
+    }
+
+    private String redact(Headers headers) {
+        if (headers == null || !headers.exist()) {
+            return "{}";
+        }
+        StringBuilder builder = new StringBuilder("{");
+        for (Header header : headers) {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            boolean sensitive = redactedHeaders.contains(header.getName().toLowerCase(Locale.ROOT));
+            builder.append(header.getName()).append('=').append(sensitive ? REDACTED : header.getValue());
+        }
+        return builder.append('}').toString();
+    }
+
+    private String truncate(Object body) {
+        if (body == null) {
+            return "<none>";
+        }
+        if (body instanceof byte[]) {
+            byte[] bytes = (byte[]) body;
+            // Decode slightly more than needed so a multi-byte character at the cut does not matter
+            int decoded = (int) Math.min(bytes.length, (long) maxBodyChars * 4);
+            return truncate(new String(bytes, 0, decoded, StandardCharsets.UTF_8), bytes.length + " bytes");
+        }
+        String text = body.toString();
+        return truncate(text, text.length() + " chars");
+    }
+
+    private String truncate(String text, String totalSize) {
+        if (text.length() <= maxBodyChars) {
+            return text;
+        }
+        return text.substring(0, maxBodyChars) + "... [truncated, " + totalSize + " total]";
+    }
+
+    // Logging must not fail the suite over a typo, so bad numbers fall back instead of throwing
+    private static int getInt(String key, int defaultValue) {
+        String value = ConfigManager.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value for {}: '{}', using default", key, value);
+            return defaultValue;
+        }
+    }
+
+    private static final class LogRecord {
+
+        private String summary;
+        private boolean failed;
+        private String requestHeaders;
+        private String requestBody;
+        private String responseHeaders;
+        private String responseBody;
+
+        private String format() {
+            if (requestHeaders == null && responseHeaders == null) {
+                return summary;
+            }
+            StringBuilder builder = new StringBuilder(summary);
+            if (requestHeaders != null) {
+                builder.append("\n  Request headers: ").append(requestHeaders)
+                        .append("\n  Request body: ").append(requestBody);
+            }
+            if (responseHeaders != null) {
+                builder.append("\n  Response headers: ").append(responseHeaders)
+                        .append("\n  Response body: ").append(responseBody);
+            }
+            return builder.toString();
+        }
+    }
+}
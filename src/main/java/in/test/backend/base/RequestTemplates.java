@@ -0,0 +1,91 @@
+package in.test.backend.base;
+
+import in.test.backend.common.ServiceEndpoints;
+import in.test.backend.utils.ConfigManager;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.specification.RequestSpecification;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request specification templates per service and endpoint
+ * <p>
+ * A template holds everything that is the same for every call to an endpoint: base URI, path,
+ * content type, the default headers and the RestAssured configuration with the shared Jackson mapper.
+ * It is built once and never handed out; {@link #given(ServiceURIs, ServiceEndpoints)} merges it into
+ * a fresh specification that the caller completes with a body, query parameters and so on.
+ * <p>
+ * Templates are keyed on the resolved base URI, so a configuration reload or the stub environment
+ * gets its own templates instead of reusing stale ones.
+ */
+@Slf4j
+public final class RequestTemplates {
+
+    // Configuration keys
+    private static final String CONTENT_TYPE_KEY = "Content-Type";
+    private static final String DEFAULT_HEADERS_KEY = "restclient.defaultHeaders";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/json";
+
+    private static final Map<String, RequestSpecification> TEMPLATES = new ConcurrentHashMap<>();
+
+    private RequestTemplates() {
+    }
+
+    /**
+     * @return a new specification for the endpoint of the given service, ready for the call-specific parts
+     */
+    public static RequestSpecification given(ServiceURIs service, ServiceEndpoints endpoint) {
+        return given(service.getService(), endpoint);
+    }
+
+    /**
+     * @return a new specification for the endpoint under an explicit base URI
+     */
+    public static RequestSpecification given(String baseUri, ServiceEndpoints endpoint) {
+        return RestAssured.given().spec(template(baseUri, endpoint));
+    }
+
+    /**
+     * Drops every cached template, so the next call picks up changed headers or content type
+     */
+    public static void clear() {
+        TEMPLATES.clear();
+    }
+
+    private static RequestSpecification template(String baseUri, ServiceEndpoints endpoint) {
+        String key = endpoint.name() + ' ' + baseUri;
+        RequestSpecification template = TEMPLATES.get(key);
+        if (template == null) {
+            template = TEMPLATES.computeIfAbsent(key, ignored -> build(baseUri, endpoint));
+        }
+        return template;
+    }
+
+    private static RequestSpecification build(String baseUri, ServiceEndpoints endpoint) {
+        RestClient.applyGlobalConfig();
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setConfig(RestAssured.config())
+                .setBaseUri(baseUri)
+                .setBasePath(endpoint.getUri())
+                .setContentType(ConfigManager.get(CONTENT_TYPE_KEY, DEFAULT_CONTENT_TYPE).trim());
+        String headers = ConfigManager.get(DEFAULT_HEADERS_KEY, "");
+        for (String name : headers.split(",")) {
+            String header = name.trim();
+            if (header.isEmpty()) {
+                continue;
+            }
+            String value = ConfigManager.get(header);
+            if (value == null || value.trim().isEmpty()) {
+                log.warn("Default header {} has no value in the configuration, skipping", header);
+                continue;
+            }
+            builder.addHeader(header, value.trim());
+        }
+        log.debug("Built request template for {} at {}", endpoint, baseUri);
+        return builder.build();
+    }
+}
@@ -0,0 +1,33 @@
+package in.test.backend.base;
+
+import in.test.backend.interfaces.HttpTransport;
+import io.restassured.http.Method;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Sends requests through RestAssured's own HTTP/1.1 stack, with the pooled client when it is enabled
+ */
+public final class RestAssuredTransport implements HttpTransport {
+
+    public static final String NAME = "restassured";
+
+    private static final RestAssuredTransport INSTANCE = new RestAssuredTransport();
+
+    private RestAssuredTransport() {
+    }
+
+    public static RestAssuredTransport getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public Response execute(RequestType requestType, RequestSpecification requestSpec) {
+        return requestSpec.request(Method.valueOf(requestType.name())).then().extract().response();
+    }
+
+    @Override
+    public boolean appliesFilters() {
+        return true;
+    }
+}
@@ -1,18 +1,211 @@
 package in.test.backend.base;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import in.test.backend.common.ServiceEndpoints;
+import in.test.backend.interfaces.HttpTransport;
+import in.test.backend.interfaces.RequestListener;
+import in.test.backend.utils.ConfigManager;
+import in.test.backend.utils.ResponseValidators;
+import in.test.backend.utils.Threads;
 import io.restassured.RestAssured;
+import io.restassured.config.ObjectMapperConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.parsing.Parser;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.MultiPartSpecification;
+import io.restassured.specification.QueryableRequestSpecification;
 import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
 import org.testng.Assert;
 import org.testng.Reporter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
 import static io.restassured.RestAssured.given;
 
 @Slf4j
 public class RestClient {
 
+    // System property keys for the async executor
+    private static final String SYS_ASYNC_THREADS_KEY = "restclient.async.threads";
+    private static final String SYS_ASYNC_VIRTUAL_KEY = "restclient.async.virtualThreads";
+
+    private static final int DEFAULT_ASYNC_THREADS = 256;
+
+    // Configuration keys
+    private static final String TRANSPORT_KEY = "restclient.transport";
+    private static final String SCHEMA_VALIDATION_KEY = "restclient.schema.validate";
+
+    private static final boolean SCHEMA_VALIDATION = ConfigManager.getBoolean(SCHEMA_VALIDATION_KEY, true);
+
+    private static final ExecutorService ASYNC_EXECUTOR = createAsyncExecutor();
+
+    private static final RequestLogger REQUEST_LOGGER = RequestLogger.getInstance();
+
+    private static final HttpRecorder HTTP_RECORDER = HttpRecorder.getInstance();
+
+    // Same defaults as RestAssured's Jackson mapper; readers are immutable and cached per response class
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    private static volatile boolean globalConfigApplied;
+
+    static {
+        applyGlobalConfig();
+    }
+
+    // Copy-on-write: registration is rare, iteration on every call takes no lock
+    private static final List<RequestListener> GLOBAL_LISTENERS = new CopyOnWriteArrayList<>();
+    private final List<RequestListener> listeners = new CopyOnWriteArrayList<>();
+
+    private static final RetryPolicy DEFAULT_RETRY_POLICY = RetryPolicy.fromSystemProperties();
+    private RetryPolicy retryPolicy = DEFAULT_RETRY_POLICY;
+
+    private HttpTransport transport = defaultTransport();
+
+    public RestClient() {
+    }
+
+    public RestClient(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RestClient(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Sets the engine that sends the requests of this instance; defaults to the one named by
+     * {@code restclient.transport}
+     */
+    public void setTransport(HttpTransport transport) {
+        this.transport = transport;
+    }
+
+    public HttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Resolves a transport by name: {@code restassured} (default) or {@code jdk} for the HTTP/2 capable
+     * java.net.http engine
+     */
+    public static HttpTransport transportNamed(String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case RestAssuredTransport.NAME:
+                return RestAssuredTransport.getInstance();
+            case JdkHttpTransport.NAME:
+                return JdkHttpTransport.getInstance();
+            default:
+                throw new IllegalArgumentException("Unknown transport '" + name + "', expected "
+                        + RestAssuredTransport.NAME + " or " + JdkHttpTransport.NAME);
+        }
+    }
+
+    private static HttpTransport defaultTransport() {
+        return transportNamed(ConfigManager.get(TRANSPORT_KEY, RestAssuredTransport.NAME));
+    }
+
+    /**
+     * An engine that does not apply RestAssured filters would silently drop console logging, record/replay
+     * and any filter of the caller, so a specification that carries filters goes through RestAssured.
+     * So does a multipart request, which only RestAssured can encode.
+     */
+    private HttpTransport transportFor(RequestSpecification requestSpecification) {
+        if (transport.appliesFilters()
+                || !(hasFilters(requestSpecification) || hasMultiPart(requestSpecification))) {
+            return transport;
+        }
+        return RestAssuredTransport.getInstance();
+    }
+
+    private static boolean hasFilters(RequestSpecification requestSpecification) {
+        return requestSpecification instanceof FilterableRequestSpecification
+                && !((FilterableRequestSpecification) requestSpecification).getDefinedFilters().isEmpty();
+    }
+
+    private static boolean hasMultiPart(RequestSpecification requestSpecification) {
+        if (!(requestSpecification instanceof FilterableRequestSpecification)) {
+            return false;
+        }
+        List<MultiPartSpecification> parts = ((FilterableRequestSpecification) requestSpecification).getMultiPartParams();
+        return parts != null && !parts.isEmpty();
+    }
+
+    /**
+     * Applies the RestAssured settings shared by every call once, instead of assigning static state per
+     * request: JSON as the default parser, the shared Jackson mapper for body (de)serialization and,
+     * unless disabled, the pooled HTTP client from {@link HttpConnectionPool}.
+     */
+    static void applyGlobalConfig() {
+        if (globalConfigApplied) {
+            return;
+        }
+        synchronized (RestClient.class) {
+            if (!globalConfigApplied) {
+                RestAssured.defaultParser = Parser.JSON;
+                RestAssuredConfig config = RestAssured.config().objectMapperConfig(new ObjectMapperConfig()
+                        .jackson2ObjectMapperFactory((type, charset) -> OBJECT_MAPPER));
+                if (HttpConnectionPool.isEnabled()) {
+                    config = config.httpClient(HttpConnectionPool.getInstance().applyTo(config.getHttpClientConfig()));
+                }
+                RestAssured.config = config;
+                globalConfigApplied = true;
+            }
+        }
+    }
+
+    /**
+     * Sets the request-level retry policy of this instance; only the HTTP call is repeated
+     */
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Registers a listener that is notified for calls made by every RestClient instance
+     */
+    public static void addGlobalListener(RequestListener listener) {
+        GLOBAL_LISTENERS.add(listener);
+    }
+
+    public static void removeGlobalListener(RequestListener listener) {
+        GLOBAL_LISTENERS.remove(listener);
+    }
+
+    /**
+     * Registers a listener that is notified for calls made by this instance only
+     */
+    public void addListener(RequestListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RequestListener listener) {
+        listeners.remove(listener);
+    }
+
     /*
      * @param requestType        HTTP Method to use
      * @param reqSpecification   request specification
@@ -26,48 +219,371 @@ public class RestClient {
                              RequestSpecification reqSpecification, Class<T> responseClass,Integer statusCode ){
         Response response = null;
         RequestSpecification requestSpecification = null;
-        RestAssured.defaultParser = Parser.JSON;
-        given().contentType("application/json\r\n");
-        try{
-            requestSpecification = given().spec(reqSpecification).log().all().when();
-            
-            System.out.println("=== MAKING " + requestType + " REQUEST ===");
-            
-            switch (requestType){
-                case GET :
-                    response = requestSpecification.get().then().extract().response();
-                    break;
-                case POST:
-                    response = requestSpecification.post().then().extract().response();
-                    break;
-                case PUT:
-                    response = requestSpecification.put().then().extract().response();
-                    break;
-                case PATCH:
-                    response = requestSpecification.patch().then().extract().response();
-                    break;
-                case DELETE:
-                    response = requestSpecification.delete().then().extract().response();
-                    break;
+        Exception failure = null;
+        boolean consoleLogging = REQUEST_LOGGER.isConsole();
+        long start = System.nanoTime();
+        long deadline = start + retryPolicy.getMaxElapsed().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            int attemptNumber = attempt;
+            response = null;
+            failure = null;
+            try{
+                requestSpecification = prepare(reqSpecification, consoleLogging);
+                RequestSpecification sentSpecification = requestSpecification;
+                fireEvent(listener -> listener.onBeforeRequest(requestType, sentSpecification));
+
+                if (consoleLogging) {
+                    System.out.println("=== MAKING " + requestType + " REQUEST ===");
+                }
+
+                response = transportFor(requestSpecification).execute(requestType, requestSpecification);
+                Response receivedResponse = response;
+                fireEvent(listener -> listener.onRequestSuccess(requestType, sentSpecification, receivedResponse, attemptNumber));
+            }
+            catch (Exception e){
+                failure = e;
+                RequestSpecification failedSpecification = requestSpecification;
+                fireEvent(listener -> listener.onRequestFailure(requestType, failedSpecification, e, attemptNumber));
+            }
+            if (consoleLogging) {
+                printOutcome(response, failure);
+            }
+
+            Exception retryCause = retryCause(failure, response, statusCode);
+            if (retryCause == null || !scheduleRetry(requestType, requestSpecification, retryCause, response, attempt, deadline)) {
+                break;
             }
-            System.out.println("Response Status: " + response.getStatusCode());
-            System.out.println("Response Body: " + response.getBody().asString());
         }
-        catch (Exception e){
-            System.out.println("Exception occurred: " + e.getMessage());
-            System.out.println("Response Status: " + (response != null ? response.getStatusCode() : "No response"));
-            System.out.println("Response Body: " + (response != null ? response.getBody().asString() : "No body"));
-            Assert.fail("API call failure: " + e.getMessage());
+        return complete(requestType, requestSpecification, response, failure, responseClass, statusCode, start);
+    }
+
+    /**
+     * Copies the caller's specification and adds the console logging and recording filters
+     */
+    private static RequestSpecification prepare(RequestSpecification reqSpecification, boolean consoleLogging) {
+        RequestSpecification requestSpecification = given().spec(reqSpecification);
+        if (consoleLogging) {
+            requestSpecification.log().all();
+        }
+        if (HTTP_RECORDER.isActive()) {
+            requestSpecification.filter(HTTP_RECORDER);
+        }
+        return requestSpecification.when();
+    }
+
+    private static void printOutcome(Response response, Exception failure) {
+        if (failure != null) {
+            System.out.println("Exception occurred: " + failure.getMessage());
+        }
+        System.out.println("Response Status: " + (response != null ? response.getStatusCode() : "No response"));
+        System.out.println("Response Body: " + (response != null ? response.getBody().asString() : "No body"));
+    }
+
+    /**
+     * Checks the final attempt of a call, logs the exchange and binds the response body
+     */
+    private static <T> T complete(RequestType requestType, RequestSpecification requestSpecification, Response response,
+                                  Exception failure, Class<T> responseClass, Integer statusCode, long start) {
+        if (failure != null) {
+            REQUEST_LOGGER.logExchange(requestType, requestSpecification, response, System.nanoTime() - start,
+                    "API call failure: " + failure.getMessage());
+            Assert.fail("API call failure: " + failure.getMessage());
         }
         if (response.statusCode() != statusCode) {
+            REQUEST_LOGGER.logExchange(requestType, requestSpecification, response, System.nanoTime() - start,
+                    "expected status " + statusCode);
             Assert.fail("status code doesn't match");
         }
-        if (response.getBody().asString().equals("")) {
+        REQUEST_LOGGER.logExchange(requestType, requestSpecification, response, System.nanoTime() - start, null);
+        if ("0".equals(response.getHeader("Content-Length"))) {
             Reporter.log("response body is empty, returning null response", true);
             return null;
         }
-        return response.as(responseClass);
+        byte[] body = response.asByteArray();
+        if (body.length == 0) {
+            Reporter.log("response body is empty, returning null response", true);
+            return null;
+        }
+        ServiceEndpoints endpoint = SCHEMA_VALIDATION ? schemaEndpoint(requestSpecification) : null;
+        return deserialize(body, responseClass, endpoint);
+    }
+
+    /**
+     * @return the reason to retry the attempt, or null when its outcome is final
+     */
+    private Exception retryCause(Exception failure, Response response, int expectedStatusCode) {
+        if (failure != null) {
+            return retryPolicy.isRetryable(failure) ? failure : null;
+        }
+        int actualStatusCode = response.getStatusCode();
+        if (actualStatusCode != expectedStatusCode && retryPolicy.isRetryable(actualStatusCode)) {
+            return new RetryableStatusException(response);
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the backoff delay before the next attempt, or reports exhaustion when the attempt
+     * limit or the elapsed-time budget does not allow another one.
+     * @return true when another attempt should be made
+     */
+    private boolean scheduleRetry(RequestType requestType, RequestSpecification requestSpecification,
+                                  Exception retryCause, Response response, int attempt, long deadline) {
+        long delay = retryDelay(requestType, requestSpecification, retryCause, response, attempt, deadline);
+        if (delay < 0) {
+            return false;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Announces the next attempt, or reports exhaustion when the attempt limit or the elapsed-time
+     * budget does not allow another one.
+     * @return the backoff delay in nanoseconds, or -1 when no attempt should follow
+     */
+    private long retryDelay(RequestType requestType, RequestSpecification requestSpecification,
+                            Exception retryCause, Response response, int attempt, long deadline) {
+        int maxRetries = retryPolicy.getMaxAttempts() - 1;
+        if (maxRetries <= 0) {
+            return -1;
+        }
+        long delay = retryPolicy.backoffNanos(attempt, response);
+        if (attempt > maxRetries || System.nanoTime() + delay > deadline) {
+            log.warn("{} request gave up after {} attempts: {}", requestType, attempt, retryCause.getMessage());
+            fireEvent(listener -> listener.onRetryExhausted(requestType, requestSpecification, retryCause, attempt));
+            return -1;
+        }
+        log.info("{} request attempt {} failed ({}), retrying in {} ms",
+                requestType, attempt, retryCause.getMessage(), TimeUnit.NANOSECONDS.toMillis(delay));
+        fireEvent(listener -> listener.onBeforeRetry(requestType, requestSpecification, retryCause, attempt, maxRetries));
+        return delay;
+    }
+
+    /**
+     * The mapper used for response binding and RestAssured body serialization
+     */
+    public static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    /**
+     * @return the endpoint the request was sent to when it has a response schema, otherwise null
+     */
+    private static ServiceEndpoints schemaEndpoint(RequestSpecification requestSpecification) {
+        QueryableRequestSpecification query = SpecificationQuerier.query(requestSpecification);
+        String basePath = query.getBasePath() == null ? "" : query.getBasePath();
+        String path = query.getUserDefinedPath() == null ? "" : query.getUserDefinedPath();
+        String requestPath = joinPath(basePath, path);
+        // An endpoint with an empty URI would match every request to the service root, whatever it returns
+        if (requestPath.replace("/", "").isEmpty()) {
+            return null;
+        }
+        ServiceEndpoints endpoint = ServiceEndpoints.fromPath(requestPath);
+        return endpoint != null && ResponseValidators.hasSchema(endpoint) ? endpoint : null;
+    }
+
+    /**
+     * Joins a base path and a path with exactly one slash between them
+     */
+    public static String joinPath(String basePath, String path) {
+        if (basePath.isEmpty() || path.isEmpty()) {
+            return basePath + path;
+        }
+        boolean baseSlash = basePath.endsWith("/");
+        boolean pathSlash = path.startsWith("/");
+        if (baseSlash && pathSlash) {
+            return basePath + path.substring(1);
+        }
+        return baseSlash || pathSlash ? basePath + path : basePath + "/" + path;
+    }
+
+    /**
+     * Binds the response bytes in a single pass, without building an intermediate String. With a schema
+     * endpoint the bytes are parsed into a tree once, validated, and the same tree is bound.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T deserialize(byte[] body, Class<T> responseClass, ServiceEndpoints schemaEndpoint) {
+        JsonNode tree = null;
+        if (schemaEndpoint != null) {
+            try {
+                tree = OBJECT_MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new RuntimeException("Response of " + schemaEndpoint + " is not valid JSON", e);
+            }
+            ResponseValidators.assertValid(schemaEndpoint, tree);
+        }
+        if (responseClass == byte[].class) {
+            return (T) body;
+        }
+        if (responseClass == String.class) {
+            return (T) new String(body, StandardCharsets.UTF_8);
+        }
+        ObjectReader reader = READERS.get(responseClass);
+        if (reader == null) {
+            reader = READERS.computeIfAbsent(responseClass, OBJECT_MAPPER::readerFor);
+        }
+        try {
+            return tree == null ? reader.readValue(body) : reader.readValue(tree);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize response to " + responseClass.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getResponse(RequestType, RequestSpecification, Class, Integer)}.
+     * Each attempt is sent with {@link HttpTransport#executeAsync}, and listeners, retries and response
+     * checks run as stages on the shared async executor; a retry waits on a delayed executor instead of
+     * a sleeping thread. A single test can therefore fan out hundreds of requests without holding a
+     * thread per request. Retry, status code and empty body handling are identical to the blocking
+     * call; an assertion failure completes the future exceptionally.
+     *
+     * @param requestType      HTTP Method to use
+     * @param reqSpecification request specification
+     * @param responseClass    class which will be used in response object
+     * @param statusCode       Status code to be verified
+     * @return future holding the response in the specified class object
+     */
+    public <T> CompletableFuture<T> getResponseAsync(RequestType requestType,
+                                                     RequestSpecification reqSpecification, Class<T> responseClass, Integer statusCode) {
+        long start = System.nanoTime();
+        long deadline = start + retryPolicy.getMaxElapsed().toNanos();
+        return sendAsync(requestType, reqSpecification, statusCode, 1, deadline)
+                .thenApply(exchange -> complete(requestType, exchange.requestSpecification, exchange.response,
+                        exchange.failure, responseClass, statusCode, start));
+    }
+
+    /**
+     * Sends one attempt and chains the next one when its outcome is retryable
+     * @return future completed with the final attempt, never exceptionally for a failed exchange
+     */
+    private CompletableFuture<Exchange> sendAsync(RequestType requestType, RequestSpecification reqSpecification,
+                                                  Integer statusCode, int attempt, long deadline) {
+        boolean consoleLogging = REQUEST_LOGGER.isConsole();
+        RequestSpecification prepared = null;
+        CompletableFuture<Response> sent;
+        try {
+            prepared = prepare(reqSpecification, consoleLogging);
+            RequestSpecification sentSpecification = prepared;
+            fireEvent(listener -> listener.onBeforeRequest(requestType, sentSpecification));
+            if (consoleLogging) {
+                System.out.println("=== MAKING " + requestType + " REQUEST ===");
+            }
+            sent = transportFor(prepared).executeAsync(requestType, prepared, ASYNC_EXECUTOR);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        RequestSpecification requestSpecification = prepared;
+        return sent.handle((response, error) -> {
+            Exception failure = error == null ? null : asException(error);
+            if (failure == null) {
+                fireEvent(listener -> listener.onRequestSuccess(requestType, requestSpecification, response, attempt));
+            } else {
+                fireEvent(listener -> listener.onRequestFailure(requestType, requestSpecification, failure, attempt));
+            }
+            if (consoleLogging) {
+                printOutcome(response, failure);
+            }
+            Exchange exchange = new Exchange(requestSpecification, response, failure);
+            Exception retryCause = retryCause(failure, response, statusCode);
+            long delay = retryCause == null
+                    ? -1 : retryDelay(requestType, requestSpecification, retryCause, response, attempt, deadline);
+            if (delay < 0) {
+                return CompletableFuture.completedFuture(exchange);
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, ASYNC_EXECUTOR);
+            return CompletableFuture.supplyAsync(
+                    () -> sendAsync(requestType, reqSpecification, statusCode, attempt + 1, deadline), delayed)
+                    .thenCompose(Function.identity());
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Unwraps the failure of an asynchronous exchange; errors such as assertion failures are rethrown
+     */
+    private static Exception asException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new CompletionException(cause);
+    }
+
+    /**
+     * Outcome of one asynchronous attempt
+     */
+    private static final class Exchange {
+
+        private final RequestSpecification requestSpecification;
+        private final Response response;
+        private final Exception failure;
+
+        private Exchange(RequestSpecification requestSpecification, Response response, Exception failure) {
+            this.requestSpecification = requestSpecification;
+            this.response = response;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Notifies global listeners, then instance listeners. A failing listener is logged and never
+     * fails the request.
+     */
+    private void fireEvent(Consumer<RequestListener> event) {
+        if (GLOBAL_LISTENERS.isEmpty() && listeners.isEmpty()) {
+            return;
+        }
+        for (RequestListener listener : GLOBAL_LISTENERS) {
+            notifyListener(listener, event);
+        }
+        for (RequestListener listener : listeners) {
+            notifyListener(listener, event);
+        }
+    }
+
+    private static void notifyListener(RequestListener listener, Consumer<RequestListener> event) {
+        try {
+            event.accept(listener);
+        } catch (RuntimeException e) {
+            log.warn("Request listener {} failed: {}", listener.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Uses a virtual-thread-per-task executor when the runtime provides one (Java 21+) and
+     * {@code restclient.async.virtualThreads} is not false, otherwise a bounded pool of daemon
+     * threads sized by {@code restclient.async.threads}.
+     */
+    private static ExecutorService createAsyncExecutor() {
+        if (Boolean.parseBoolean(System.getProperty(SYS_ASYNC_VIRTUAL_KEY, "true"))) {
+            ExecutorService virtualThreads = Threads.newVirtualThreadPerTaskExecutor();
+            if (virtualThreads != null) {
+                log.debug("Using virtual threads for async requests");
+                return virtualThreads;
+            }
+            log.debug("Virtual threads not available on this runtime, using a bounded pool");
+        }
+
+        int threads = DEFAULT_ASYNC_THREADS;
+        String systemProperty = System.getProperty(SYS_ASYNC_THREADS_KEY);
+        if (systemProperty != null && !systemProperty.trim().isEmpty()) {
+            try {
+                threads = Integer.parseInt(systemProperty.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid system property for async threads: '{}', using default", systemProperty);
+            }
+        }
+        log.debug("Using {} threads for async requests", threads);
 
+        return Executors.newFixedThreadPool(threads, Threads.daemonFactory("rest-client-async-"));
     }
 
 }
@@ -0,0 +1,183 @@
+package in.test.backend.base;
+
+import io.restassured.response.Response;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Request-level retry policy for RestClient
+ * <p>
+ * Only the HTTP call is repeated. A call is retried when it throws one of {@code retryOnExceptions}
+ * (checked along the cause chain) or returns one of {@code retryOnStatusCodes} that is not the status
+ * the test expects. Delays use exponential backoff with full jitter, a {@code Retry-After} header
+ * takes precedence when present, and no retry is started that would end after {@code maxElapsed}.
+ * <p>
+ * The default policy comes from system properties and makes a single attempt unless
+ * {@code restclient.retry.maxAttempts} is raised.
+ */
+@Slf4j
+@Getter
+@Builder(toBuilder = true)
+public class RetryPolicy {
+
+    // System property keys
+    private static final String SYS_MAX_ATTEMPTS_KEY = "restclient.retry.maxAttempts";
+    private static final String SYS_STATUS_CODES_KEY = "restclient.retry.statusCodes";
+    private static final String SYS_INITIAL_BACKOFF_KEY = "restclient.retry.initialBackoffMs";
+    private static final String SYS_MAX_BACKOFF_KEY = "restclient.retry.maxBackoffMs";
+    private static final String SYS_MAX_ELAPSED_KEY = "restclient.retry.maxElapsedMs";
+
+    // Default values
+    private static final int DEFAULT_MAX_ATTEMPTS = 1;
+    private static final String DEFAULT_STATUS_CODES = "429,502,503,504";
+    private static final long DEFAULT_INITIAL_BACKOFF_MS = 200;
+    private static final long DEFAULT_MAX_BACKOFF_MS = 5_000;
+    private static final long DEFAULT_MAX_ELAPSED_MS = 30_000;
+
+    /**
+     * Total attempts including the first one; 1 disables retries
+     */
+    @Builder.Default
+    private final int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    @Singular
+    private final Set<Integer> retryOnStatusCodes;
+
+    @Singular
+    private final Set<Class<? extends Exception>> retryOnExceptions;
+
+    @Builder.Default
+    private final Duration initialBackoff = Duration.ofMillis(DEFAULT_INITIAL_BACKOFF_MS);
+
+    @Builder.Default
+    private final Duration maxBackoff = Duration.ofMillis(DEFAULT_MAX_BACKOFF_MS);
+
+    @Builder.Default
+    private final double multiplier = 2.0;
+
+    /**
+     * Time budget for all attempts, measured from the start of the first one
+     */
+    @Builder.Default
+    private final Duration maxElapsed = Duration.ofMillis(DEFAULT_MAX_ELAPSED_MS);
+
+    @Builder.Default
+    private final boolean honorRetryAfter = true;
+
+    /**
+     * Policy that never retries
+     */
+    public static final RetryPolicy NONE = RetryPolicy.builder().maxAttempts(1).build();
+
+    /**
+     * Builder pre-filled with the default retryable status codes and I/O exceptions
+     */
+    public static RetryPolicyBuilder defaults() {
+        return RetryPolicy.builder()
+                .retryOnStatusCodes(parseStatusCodes(DEFAULT_STATUS_CODES))
+                .retryOnException(IOException.class);
+    }
+
+    /**
+     * Builds the default policy from system properties, falling back to the defaults
+     */
+    public static RetryPolicy fromSystemProperties() {
+        return defaults()
+                .clearRetryOnStatusCodes()
+                .retryOnStatusCodes(parseStatusCodes(System.getProperty(SYS_STATUS_CODES_KEY, DEFAULT_STATUS_CODES)))
+                .maxAttempts((int) getLong(SYS_MAX_ATTEMPTS_KEY, DEFAULT_MAX_ATTEMPTS))
+                .initialBackoff(Duration.ofMillis(getLong(SYS_INITIAL_BACKOFF_KEY, DEFAULT_INITIAL_BACKOFF_MS)))
+                .maxBackoff(Duration.ofMillis(getLong(SYS_MAX_BACKOFF_KEY, DEFAULT_MAX_BACKOFF_MS)))
+                .maxElapsed(Duration.ofMillis(getLong(SYS_MAX_ELAPSED_KEY, DEFAULT_MAX_ELAPSED_MS)))
+                .build();
+    }
+
+    public boolean isRetryable(int statusCode) {
+        return retryOnStatusCodes.contains(statusCode);
+    }
+
+    public boolean isRetryable(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            for (Class<? extends Exception> retryable : retryOnExceptions) {
+                if (retryable.isInstance(cause)) {
+                    return true;
+                }
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Delay before the next attempt
+     * @param attempt  attempt that just failed, starting at 1
+     * @param response response of that attempt, may be null
+     * @return delay in nanoseconds
+     */
+    public long backoffNanos(int attempt, Response response) {
+        if (honorRetryAfter && response != null) {
+            long retryAfter = retryAfterNanos(response.getHeader("Retry-After"));
+            if (retryAfter >= 0) {
+                return retryAfter;
+            }
+        }
+        double exponential = initialBackoff.toNanos() * Math.pow(multiplier, attempt - 1);
+        long cap = (long) Math.min(maxBackoff.toNanos(), exponential);
+        // Full jitter: uniformly random between zero and the exponential cap
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static long retryAfterNanos(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Duration.ofSeconds(Long.parseLong(value)).toNanos();
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try an HTTP date
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(date.getZone()), date).toNanos());
+        } catch (DateTimeParseException e) {
+            log.warn("Ignoring unparseable Retry-After header: '{}'", value);
+            return -1;
+        }
+    }
+
+    private static Set<Integer> parseStatusCodes(String statusCodes) {
+        return Arrays.stream(statusCodes.split(","))
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .map(Integer::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    private static long getLong(String key, long defaultValue) {
+        String systemProperty = System.getProperty(key);
+        if (systemProperty == null || systemProperty.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(systemProperty.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid system property for {}: '{}', using default", key, systemProperty);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package in.test.backend.base;
+
+import io.restassured.response.Response;
+import lombok.Getter;
+
+/**
+ * Describes an attempt that returned a retryable status code, passed to
+ * {@link in.test.backend.interfaces.RequestListener} retry callbacks
+ */
+@Getter
+public class RetryableStatusException extends RuntimeException {
+
+    private final transient Response response;
+    private final int statusCode;
+
+    public RetryableStatusException(Response response) {
+        super("Retryable status code " + response.getStatusCode());
+        this.response = response;
+        this.statusCode = response.getStatusCode();
+    }
+}
@@ -1,36 +1,31 @@
 package in.test.backend.base;
 
+import in.test.backend.stub.StubServer;
+import in.test.backend.utils.ConfigManager;
 import lombok.Getter;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
 
 @Getter
 public enum ServiceURIs {
 
-    URL(getConfigProperty("base.url"));
-    
-    private final String service;
-    
-    ServiceURIs(String service) {
-        this.service = service;
+    URL("base.url");
+
+    private static final String DEFAULT_SERVICE = "http://localhost:8080/";
+
+    private final String configKey;
+
+    ServiceURIs(String configKey) {
+        this.configKey = configKey;
     }
-    
+
+    /**
+     * Read from the current configuration snapshot, so environment overrides and reloads apply.
+     * In the {@code stub} environment this is the in-process stub server, started on first use.
+     */
     public String getService() {
-        return service;
-    }
-    
-    private static String getConfigProperty(String key) {
-        Properties properties = new Properties();
-        try (InputStream input = ServiceURIs.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (input == null) {
-                return "http://localhost:8080/";
-            }
-            properties.load(input);
-            return properties.getProperty(key, "http://localhost:8080/");
-        } catch (IOException e) {
-            return "http://localhost:8080/";
+        if (StubServer.isStubEnvironment()) {
+            return StubServer.shared().getBaseUrl();
         }
+        return ConfigManager.get(configKey, DEFAULT_SERVICE);
     }
 
 }
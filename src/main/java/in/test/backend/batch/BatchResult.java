@@ -0,0 +1,143 @@
+package in.test.backend.batch;
+
+import in.test.backend.common.ServiceHelper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.Assert;
+import org.testng.Reporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Per-item outcomes of one {@link BatchRunner} run
+ * <p>
+ * The whole batch is reported as a single test: {@link #assertAllPassed()} writes one line per item to
+ * the TestNG report and fails with the failed items listed, or when the batch stopped before the end of
+ * its input.
+ */
+@Slf4j
+@Getter
+public class BatchResult<R> {
+
+    // Failed items spelled out in the assertion message; the report has all of them
+    private static final int MAX_FAILURES_IN_MESSAGE = 20;
+
+    private final List<ItemResult<R>> items;
+    private final long elapsedNanos;
+    /**
+     * Why the batch stopped before the end of its input (the input failed or the run was interrupted);
+     * null when every request was run
+     */
+    private final Throwable abortCause;
+
+    BatchResult(Collection<ItemResult<R>> results, boolean preserveOrder, long elapsedNanos, Throwable abortCause) {
+        List<ItemResult<R>> ordered = new ArrayList<>(results);
+        if (preserveOrder) {
+            ordered.sort(Comparator.comparingLong(ItemResult::getIndex));
+        }
+        this.items = Collections.unmodifiableList(ordered);
+        this.elapsedNanos = elapsedNanos;
+        this.abortCause = abortCause;
+    }
+
+    public List<ItemResult<R>> getFailures() {
+        return items.stream().filter(item -> !item.isPassed()).collect(Collectors.toList());
+    }
+
+    public long getPassedCount() {
+        return items.stream().filter(ItemResult::isPassed).count();
+    }
+
+    public long getFailedCount() {
+        return items.size() - getPassedCount();
+    }
+
+    public boolean isComplete() {
+        return abortCause == null;
+    }
+
+    public boolean isAllPassed() {
+        return isComplete() && getFailedCount() == 0;
+    }
+
+    /**
+     * Writes every item to the TestNG report, then fails when any item failed or the batch was aborted
+     */
+    public void assertAllPassed() {
+        for (ItemResult<R> item : items) {
+            Reporter.log(item.toString());
+        }
+        Reporter.log(summary(), true);
+        List<ItemResult<R>> failures = getFailures();
+        if (failures.isEmpty() && isComplete()) {
+            return;
+        }
+        StringBuilder message = new StringBuilder(summary());
+        failures.stream().limit(MAX_FAILURES_IN_MESSAGE).forEach(item -> message.append('\n').append(item));
+        if (failures.size() > MAX_FAILURES_IN_MESSAGE) {
+            message.append("\n... and ").append(failures.size() - MAX_FAILURES_IN_MESSAGE).append(" more");
+        }
+        Assert.fail(message.toString());
+    }
+
+    void log() {
+        if (isComplete()) {
+            log.info(summary());
+        } else {
+            log.warn(summary());
+        }
+        getFailures().forEach(item -> log.debug("{}", item));
+    }
+
+    private String summary() {
+        String summary = String.format("Batch: %d items, %d passed, %d failed in %.2f s",
+                items.size(), getPassedCount(), getFailedCount(), elapsedNanos / 1_000_000_000.0);
+        if (abortCause == null) {
+            return summary;
+        }
+        return summary + "; aborted before the end of the input: "
+                + abortCause.getClass().getSimpleName() + ": " + abortCause.getMessage();
+    }
+
+    /**
+     * Outcome of the flow for one request
+     */
+    @Getter
+    public static class ItemResult<R> {
+
+        /**
+         * Position of the request in the input
+         */
+        private final long index;
+        private final R request;
+        /**
+         * Helper after the flow, for reading the response; null when the item failed
+         */
+        private final ServiceHelper helper;
+        private final Throwable failure;
+        private final long durationNanos;
+
+        ItemResult(long index, R request, ServiceHelper helper, Throwable failure, long durationNanos) {
+            this.index = index;
+            this.request = request;
+            this.helper = helper;
+            this.failure = failure;
+            this.durationNanos = durationNanos;
+        }
+
+        public boolean isPassed() {
+            return failure == null;
+        }
+
+        @Override
+        public String toString() {
+            String outcome = failure == null ? "PASSED" : "FAILED " + failure.getClass().getSimpleName() + ": " + failure.getMessage();
+            return String.format("[%d] %s (%.1f ms) %s", index, outcome, durationNanos / 1_000_000.0, request);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package in.test.backend.batch;
+
+import in.test.backend.common.ServiceHelper;
+import in.test.backend.utils.Threads;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Runs a {@link ServiceHelper} flow ({@code test()}) once per request DTO with bounded concurrency.
+ * <p>
+ * Helpers keep per-call state, so every item gets its own helper from the factory:
+ * <pre>
+ * BatchResult&lt;SampleRequest&gt; result = new BatchRunner&lt;SampleRequest&gt;(
+ *         request -> new MerchantConfigAttributesServiceHelper(ServiceURIs.URL).withRequest(request), 32)
+ *         .preserveOrder(true)
+ *         .run(requests);
+ * result.assertAllPassed();
+ * </pre>
+ * Requests are pulled from the stream only when a slot is free, so a large or lazily generated input is
+ * never queued up in memory. A failing item (exception or assertion error) is recorded and the run goes on.
+ * When the input itself fails or the run is interrupted, the items in flight still finish and the cause is
+ * kept on the result, so {@link BatchResult#assertAllPassed()} fails for a batch that did not run to the end.
+ */
+@Slf4j
+public class BatchRunner<R> {
+
+    private final Function<? super R, ? extends ServiceHelper> helperFactory;
+    private final int concurrency;
+    private boolean preserveOrder;
+
+    /**
+     * @param helperFactory creates the helper that runs the flow for one request
+     * @param concurrency   maximum number of flows in flight
+     */
+    public BatchRunner(Function<? super R, ? extends ServiceHelper> helperFactory, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1, was " + concurrency);
+        }
+        this.helperFactory = helperFactory;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param preserveOrder true to report items in input order instead of completion order
+     */
+    public BatchRunner<R> preserveOrder(boolean preserveOrder) {
+        this.preserveOrder = preserveOrder;
+        return this;
+    }
+
+    public BatchResult<R> run(Iterable<? extends R> requests) {
+        return run(requests.iterator());
+    }
+
+    /**
+     * Runs the flow for every request, blocks until all have finished and logs the summary.
+     * The stream is closed afterwards.
+     */
+    public BatchResult<R> run(Stream<? extends R> requests) {
+        try (requests) {
+            return run(requests.iterator());
+        }
+    }
+
+    private BatchResult<R> run(Iterator<? extends R> requests) {
+        Queue<BatchResult.ItemResult<R>> results = new ConcurrentLinkedQueue<>();
+        Semaphore slots = new Semaphore(concurrency);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, Threads.daemonFactory("batch-worker-"));
+        long start = System.nanoTime();
+        long index = 0;
+        Throwable abortCause = null;
+        try {
+            while (requests.hasNext()) {
+                slots.acquire();
+                R request = requests.next();
+                long itemIndex = index++;
+                workers.execute(() -> {
+                    try {
+                        results.add(runItem(itemIndex, request));
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            log.warn("Batch interrupted after submitting {} items", index);
+            abortCause = e;
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // The input itself failed; keep what already ran
+            log.error("Batch input failed after {} items: {}", index, e.getMessage());
+            abortCause = e;
+        }
+        awaitCompletion(workers);
+
+        BatchResult<R> result = new BatchResult<>(results, preserveOrder, System.nanoTime() - start, abortCause);
+        result.log();
+        return result;
+    }
+
+    private BatchResult.ItemResult<R> runItem(long index, R request) {
+        long start = System.nanoTime();
+        try {
+            ServiceHelper helper = helperFactory.apply(request);
+            helper.test();
+            return new BatchResult.ItemResult<>(index, request, helper, null, System.nanoTime() - start);
+        } catch (Exception | AssertionError e) {
+            log.debug("Batch item {} failed: {}", index, e.getMessage());
+            return new BatchResult.ItemResult<>(index, request, null, e, System.nanoTime() - start);
+        }
+    }
+
+    private static void awaitCompletion(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for in-flight batch items to finish");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,12 +2,23 @@ package in.test.backend.common;
 
 import lombok.Getter;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Getter
 public enum ServiceEndpoints {
 
 
     SAMPLE_ENDPOINT("");
 
+    private static final Map<String, ServiceEndpoints> BY_PATH = new HashMap<>();
+
+    static {
+        for (ServiceEndpoints endpoint : values()) {
+            BY_PATH.putIfAbsent(normalize(endpoint.uri), endpoint);
+        }
+    }
+
     private final String uri;
     
     ServiceEndpoints(String uri) {
@@ -17,4 +28,26 @@ public enum ServiceEndpoints {
     public String getUri() {
         return uri;
     }
+
+    /**
+     * @return the endpoint whose URI is the given request path (slashes at either end ignored), or null
+     */
+    public static ServiceEndpoints fromPath(String path) {
+        return BY_PATH.get(normalize(path));
+    }
+
+    private static String normalize(String path) {
+        if (path == null) {
+            return "";
+        }
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return path.substring(start, end);
+    }
 }
@@ -1,22 +1,24 @@
 package in.test.backend.helpers;
 
+import in.test.backend.base.RequestTemplates;
 import in.test.backend.base.RequestType;
 import in.test.backend.base.RestClient;
+import in.test.backend.base.ServiceURIs;
 import in.test.backend.common.ServiceEndpoints;
 import in.test.backend.common.ServiceHelper;
 import in.test.backend.dtos.requestDto.SampleRequest;
 import in.test.backend.dtos.responseDto.SampleResponse;
+import in.test.backend.utils.PreparedRequest;
 import io.restassured.specification.RequestSpecification;
 import lombok.extern.slf4j.Slf4j;
 
-import static io.restassured.RestAssured.given;
-
 @Slf4j
 public class MerchantConfigAttributesServiceHelper implements ServiceHelper {
     
     private final RestClient restClient;
     private final String baseUrl;
     private SampleRequest request;
+    private PreparedRequest<SampleRequest> preparedRequest;
     private SampleResponse response;
     private int expectedStatusCode = 200;
     
@@ -24,6 +26,25 @@ public class MerchantConfigAttributesServiceHelper implements ServiceHelper {
         this.restClient = new RestClient();
         this.baseUrl = baseUrl;
     }
+
+    public MerchantConfigAttributesServiceHelper(ServiceURIs service) {
+        this(service.getService());
+    }
+    
+    public MerchantConfigAttributesServiceHelper withRequest(SampleRequest request) {
+        this.request = request;
+        this.preparedRequest = null;
+        return this;
+    }
+
+    /**
+     * Uses a request whose body was serialized ahead of time; the bytes are sent as they are
+     */
+    public MerchantConfigAttributesServiceHelper withRequest(PreparedRequest<SampleRequest> preparedRequest) {
+        this.request = preparedRequest.getRequest();
+        this.preparedRequest = preparedRequest;
+        return this;
+    }
     
     @Override
     public ServiceHelper init() {
@@ -35,14 +56,12 @@ public class MerchantConfigAttributesServiceHelper implements ServiceHelper {
     public ServiceHelper process() {
         log.info("Processing merchant config attributes request for merchant: {}", request.getAttribute1());
         
-        RequestSpecification requestSpec = given()
-                .baseUri(baseUrl)
-                .contentType("application/json")
-                .body(request);
+        RequestSpecification requestSpec = RequestTemplates.given(baseUrl, ServiceEndpoints.SAMPLE_ENDPOINT);
+        requestSpec = preparedRequest != null ? preparedRequest.applyTo(requestSpec) : requestSpec.body(request);
         
         response = restClient.getResponse(
                 RequestType.POST,
-                requestSpec.basePath(ServiceEndpoints.SAMPLE_ENDPOINT.getUri()),
+                requestSpec,
                 SampleResponse.class,
                 expectedStatusCode
         );
@@ -0,0 +1,45 @@
+package in.test.backend.interfaces;
+
+import in.test.backend.base.RequestType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Engine that sends the HTTP request described by a RestAssured specification
+ * <p>
+ * RestClient keeps retries, listeners and logging; the transport only turns a specification into
+ * one exchange on the wire and returns the response in RestAssured form.
+ */
+public interface HttpTransport {
+
+    /**
+     * Sends the request and waits for the response
+     * @param requestType The HTTP method to use
+     * @param requestSpec The fully built request specification
+     * @return the response, whatever its status code
+     */
+    Response execute(RequestType requestType, RequestSpecification requestSpec);
+
+    /**
+     * Sends the request without blocking the calling thread
+     * @param requestType The HTTP method to use
+     * @param requestSpec The fully built request specification
+     * @param executor    Runs the blocking send of engines without an asynchronous client, and the
+     *                    stages that follow the response
+     * @return future completed with the response, or exceptionally when the exchange failed
+     */
+    default CompletableFuture<Response> executeAsync(RequestType requestType, RequestSpecification requestSpec,
+                                                     Executor executor) {
+        return CompletableFuture.supplyAsync(() -> execute(requestType, requestSpec), executor);
+    }
+
+    /**
+     * @return true when RestAssured filters on the specification (console logging, record/replay) are applied
+     */
+    default boolean appliesFilters() {
+        return false;
+    }
+}
@@ -0,0 +1,361 @@
+package in.test.backend.listeners;
+
+import in.test.backend.base.RequestType;
+import in.test.backend.base.RestClient;
+import in.test.backend.interfaces.RequestListener;
+import in.test.backend.utils.ConfigManager;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.restassured.response.Response;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Attaches RestClient request and response bodies to the Allure report without holding them in memory
+ * <p>
+ * Register it in testng.xml instead of the {@code AllureRestAssured} filter; it adds itself as a global
+ * RestClient listener when the suite starts. For every call sent from a test thread it keeps a small
+ * head-and-tail excerpt and hands the full exchange to a background writer, which spools it to disk
+ * (gzip-compressed above {@code allure.attachments.compressAbove}). When the test method returns,
+ * a failed test gets the spooled full exchanges and a passed one the excerpts; the spools of passed
+ * tests are deleted. An async call belongs to the test that sent it and is attached when it completes
+ * before that test returns; its retries are sent from an executor thread and are not attached. Limits come from the configuration:
+ * <ul>
+ *     <li>{@code allure.attachments.enabled} (default true)</li>
+ *     <li>{@code allure.attachments.excerptBytes}: head plus tail kept per body for passed tests</li>
+ *     <li>{@code allure.attachments.maxBytes}: per body for failed tests; larger bodies are cut to a
+ *     head and tail of this size</li>
+ *     <li>{@code allure.attachments.maxBytesPerTest}: bodies spooled and excerpts attached per test;
+ *     further calls are only counted</li>
+ *     <li>{@code allure.attachments.queueSize} and {@code allure.attachments.queueBytes}: writer queue
+ *     limits; a full body that does not fit is dropped and the excerpt is attached instead</li>
+ *     <li>{@code allure.attachments.spoolDir}: where full bodies wait for the test outcome</li>
+ * </ul>
+ */
+@Slf4j
+public class AllureAttachmentListener implements RequestListener, IInvokedMethodListener, ISuiteListener {
+
+    // Configuration keys
+    private static final String ENABLED_KEY = "allure.attachments.enabled";
+    private static final String EXCERPT_BYTES_KEY = "allure.attachments.excerptBytes";
+    private static final String MAX_BYTES_KEY = "allure.attachments.maxBytes";
+    private static final String MAX_BYTES_PER_TEST_KEY = "allure.attachments.maxBytesPerTest";
+    private static final String COMPRESS_ABOVE_KEY = "allure.attachments.compressAbove";
+    private static final String QUEUE_SIZE_KEY = "allure.attachments.queueSize";
+    private static final String QUEUE_BYTES_KEY = "allure.attachments.queueBytes";
+    private static final String SPOOL_DIR_KEY = "allure.attachments.spoolDir";
+
+    // Default values
+    private static final int DEFAULT_EXCERPT_BYTES = 4096;
+    private static final long DEFAULT_MAX_BYTES = 1L << 20;
+    private static final long DEFAULT_MAX_BYTES_PER_TEST = 16L << 20;
+    private static final long DEFAULT_COMPRESS_ABOVE = 64L << 10;
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+    private static final long DEFAULT_QUEUE_BYTES = 64L << 20;
+    private static final String DEFAULT_SPOOL_DIR = "target/allure-spool";
+
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(60);
+
+    private final ThreadLocal<TestAttachments> current = new ThreadLocal<>();
+    // Keyed by the sent specification: async outcomes arrive on another thread than the send
+    private final ConcurrentMap<RequestSpecification, PendingRequest> pending = new ConcurrentHashMap<>();
+    private boolean enabled;
+    private int excerptBytes;
+    private long maxBytes;
+    private long maxBytesPerTest;
+    private long compressAbove;
+    private Path spoolDir;
+    private AttachmentWriter writer;
+
+    @Override
+    public void onStart(ISuite suite) {
+        enabled = ConfigManager.getBoolean(ENABLED_KEY, true);
+        if (!enabled) {
+            return;
+        }
+        excerptBytes = ConfigManager.getInt(EXCERPT_BYTES_KEY, DEFAULT_EXCERPT_BYTES);
+        maxBytes = Math.max(excerptBytes, ConfigManager.getLong(MAX_BYTES_KEY, DEFAULT_MAX_BYTES));
+        maxBytesPerTest = ConfigManager.getLong(MAX_BYTES_PER_TEST_KEY, DEFAULT_MAX_BYTES_PER_TEST);
+        compressAbove = ConfigManager.getLong(COMPRESS_ABOVE_KEY, DEFAULT_COMPRESS_ABOVE);
+        spoolDir = Paths.get(ConfigManager.get(SPOOL_DIR_KEY, DEFAULT_SPOOL_DIR));
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            log.error("Cannot create attachment spool directory {}, attachments are disabled: {}", spoolDir, e.getMessage());
+            enabled = false;
+            return;
+        }
+        writer = new AttachmentWriter(ConfigManager.getInt(QUEUE_SIZE_KEY, DEFAULT_QUEUE_SIZE),
+                ConfigManager.getLong(QUEUE_BYTES_KEY, DEFAULT_QUEUE_BYTES));
+        RestClient.addGlobalListener(this);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!enabled) {
+            return;
+        }
+        RestClient.removeGlobalListener(this);
+        if (!writer.flush(FLUSH_TIMEOUT)) {
+            log.warn("Allure attachments still being written after {} s", FLUSH_TIMEOUT.getSeconds());
+        }
+        if (writer.getDropped() > 0) {
+            log.warn("{} full bodies were not spooled because the attachment queue was full", writer.getDropped());
+        }
+        deleteSpools();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (enabled && method.isTestMethod()) {
+            current.set(new TestAttachments());
+        }
+    }
+
+    /**
+     * Runs on the test thread once the outcome is known and before the Allure test case is closed
+     */
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!enabled || !method.isTestMethod()) {
+            return;
+        }
+        TestAttachments test = current.get();
+        current.remove();
+        if (test != null) {
+            synchronized (test) {
+                test.closed = true;
+            }
+            attach(test, testResult.getStatus() == ITestResult.FAILURE);
+        }
+    }
+
+    @Override
+    public void onBeforeRequest(RequestType requestType, RequestSpecification requestSpec) {
+        TestAttachments test = current.get();
+        if (test != null && requestSpec != null) {
+            pending.put(requestSpec, new PendingRequest(test, System.nanoTime()));
+        }
+    }
+
+    @Override
+    public void onRequestSuccess(RequestType requestType, RequestSpecification requestSpec, Response response, int attemptNumber) {
+        PendingRequest request = requestSpec == null ? null : pending.remove(requestSpec);
+        if (request != null) {
+            capture(request, requestType, requestSpec, String.valueOf(response.getStatusCode()), response.asByteArray());
+        }
+    }
+
+    @Override
+    public void onRequestFailure(RequestType requestType, RequestSpecification requestSpec, Exception exception, int attemptNumber) {
+        PendingRequest request = requestSpec == null ? null : pending.remove(requestSpec);
+        if (request != null) {
+            capture(request, requestType, requestSpec, "no response", String.valueOf(exception).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void capture(PendingRequest request, RequestType requestType, RequestSpecification requestSpec,
+                         String outcome, byte[] responseBody) {
+        QueryableRequestSpecification query = SpecificationQuerier.query(requestSpec);
+        String title = requestType + " " + query.getURI() + " -> " + outcome;
+        byte[] header = (title + String.format(" in %.1f ms", (System.nanoTime() - request.start) / 1_000_000.0))
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] requestBody = bodyBytes(query.getBody());
+        TestAttachments test = request.test;
+        // An async call can complete on an executor thread while the test thread records its own calls
+        synchronized (test) {
+            if (!test.closed) {
+                capture(test, title, header, requestBody, responseBody);
+            }
+        }
+    }
+
+    private void capture(TestAttachments test, String title, byte[] header, byte[] requestBody, byte[] responseBody) {
+
+        int half = excerptBytes / 2;
+        byte[] excerpt = concat(render(header, requestBody, responseBody, half, true));
+        if (test.attachedBytes + excerpt.length > maxBytesPerTest) {
+            test.omitted++;
+            return;
+        }
+        Exchange exchange = new Exchange(title, excerpt);
+        test.attachedBytes += excerpt.length;
+        test.exchanges.add(exchange);
+
+        // The excerpt already holds the whole exchange when neither body was cut
+        if (requestBody.length <= half && responseBody.length <= half) {
+            return;
+        }
+        List<ByteBuffer> full = render(header, requestBody, responseBody, maxBytes / 2, false);
+        long size = 0;
+        for (ByteBuffer part : full) {
+            size += part.remaining();
+        }
+        if (test.spooledBytes + size > maxBytesPerTest) {
+            return;
+        }
+        boolean gzip = size > compressAbove;
+        Path spool = spoolDir.resolve(UUID.randomUUID() + (gzip ? ".txt.gz" : ".txt"));
+        if (writer.spool(spool, full, gzip)) {
+            exchange.spool = spool;
+            exchange.gzip = gzip;
+            test.spooledBytes += size;
+        }
+    }
+
+    private void attach(TestAttachments test, boolean failed) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        for (Exchange exchange : test.exchanges) {
+            if (failed && exchange.spool != null) {
+                String source = exchange.gzip
+                        ? lifecycle.prepareAttachment(exchange.title + " (gzip)", "application/gzip", ".txt.gz")
+                        : lifecycle.prepareAttachment(exchange.title, "text/plain", ".txt");
+                writer.attachSpool(source, exchange.spool);
+            } else {
+                writer.attach(lifecycle.prepareAttachment(exchange.title, "text/plain", ".txt"), exchange.excerpt);
+                if (exchange.spool != null) {
+                    writer.delete(exchange.spool);
+                }
+            }
+        }
+        if (test.omitted > 0) {
+            writer.attach(lifecycle.prepareAttachment("Omitted exchanges", "text/plain", ".txt"),
+                    (test.omitted + " more calls were not attached: allure.attachments.maxBytesPerTest reached")
+                            .getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Lays out one exchange as text parts. Bodies longer than twice {@code half} keep their first and
+     * last {@code half} bytes. Copied parts no longer reference the bodies, so excerpts can be kept
+     * until the test ends; spooled parts are views released once written.
+     */
+    private static List<ByteBuffer> render(byte[] header, byte[] requestBody, byte[] responseBody, long half, boolean copy) {
+        List<ByteBuffer> parts = new ArrayList<>();
+        parts.add(ByteBuffer.wrap(header));
+        parts.add(text("\n\n--- Request body (" + requestBody.length + " bytes) ---\n"));
+        addBody(parts, requestBody, half, copy);
+        parts.add(text("\n\n--- Response body (" + responseBody.length + " bytes) ---\n"));
+        addBody(parts, responseBody, half, copy);
+        return parts;
+    }
+
+    private static void addBody(List<ByteBuffer> parts, byte[] body, long half, boolean copy) {
+        if (body.length <= 2 * half) {
+            parts.add(slice(body, 0, body.length, copy));
+            return;
+        }
+        int keep = (int) half;
+        parts.add(slice(body, 0, keep, copy));
+        parts.add(text("\n... [" + (body.length - 2L * keep) + " bytes omitted] ...\n"));
+        parts.add(slice(body, body.length - keep, keep, copy));
+    }
+
+    private static ByteBuffer slice(byte[] body, int offset, int length, boolean copy) {
+        if (copy) {
+            byte[] bytes = new byte[length];
+            System.arraycopy(body, offset, bytes, 0, length);
+            return ByteBuffer.wrap(bytes);
+        }
+        return ByteBuffer.wrap(body, offset, length);
+    }
+
+    private static ByteBuffer text(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] concat(List<ByteBuffer> parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (ByteBuffer part : parts) {
+            out.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bodyBytes(Object body) {
+        if (body == null) {
+            return new byte[0];
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void deleteSpools() {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            files.forEach(file -> {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Failed to clean attachment spool directory {}: {}", spoolDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Calls made during one test method invocation; guarded by its own monitor until the test returns
+     */
+    private static final class TestAttachments {
+
+        private final List<Exchange> exchanges = new ArrayList<>();
+        private long attachedBytes;
+        private long spooledBytes;
+        private int omitted;
+        // Set when the test returns; later async outcomes are not attached
+        private boolean closed;
+    }
+
+    /**
+     * A sent request, with the test that sent it
+     */
+    private static final class PendingRequest {
+
+        private final TestAttachments test;
+        private final long start;
+
+        private PendingRequest(TestAttachments test, long start) {
+            this.test = test;
+            this.start = start;
+        }
+    }
+
+    private static final class Exchange {
+
+        private final String title;
+        private final byte[] excerpt;
+        private Path spool;
+        private boolean gzip;
+
+        private Exchange(String title, byte[] excerpt) {
+            this.title = title;
+            this.excerpt = excerpt;
+        }
+    }
+}
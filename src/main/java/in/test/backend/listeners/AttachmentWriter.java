@@ -0,0 +1,173 @@
+package in.test.backend.listeners;
+
+import io.qameta.allure.Allure;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Background writer for {@link AllureAttachmentListener}
+ * <p>
+ * One daemon thread runs the jobs in order, so a spool file is always complete before it is attached
+ * or deleted. Small jobs wait for room in the queue; body spools are refused when the bytes waiting in
+ * the queue would exceed the limit, so a slow disk costs the full body of a failed test rather than
+ * memory or test time.
+ */
+@Slf4j
+final class AttachmentWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final BlockingQueue<Job> queue;
+    private final long maxQueuedBytes;
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    AttachmentWriter(int queueSize, long maxQueuedBytes) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.maxQueuedBytes = maxQueuedBytes;
+        Thread writer = new Thread(this::drain, "allure-attachment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the parts to be written to a spool file, gzip-compressed when asked
+     * @return false, without waiting, when the queue is full or holds too many bytes
+     */
+    boolean spool(Path file, List<ByteBuffer> parts, boolean gzip) {
+        long bytes = 0;
+        for (ByteBuffer part : parts) {
+            bytes += part.remaining();
+        }
+        if (queuedBytes.addAndGet(bytes) > maxQueuedBytes
+                || !queue.offer(new Job(bytes, () -> writeSpool(file, parts, gzip)))) {
+            queuedBytes.addAndGet(-bytes);
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Queues an in-memory attachment
+     */
+    void attach(String source, byte[] content) {
+        queuedBytes.addAndGet(content.length);
+        if (!put(new Job(content.length, () -> Allure.getLifecycle().writeAttachment(source, new ByteArrayInputStream(content))))) {
+            queuedBytes.addAndGet(-content.length);
+        }
+    }
+
+    /**
+     * Queues a spool file to become an attachment; the file is deleted afterwards
+     */
+    void attachSpool(String source, Path file) {
+        put(new Job(0, () -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                Allure.getLifecycle().writeAttachment(source, in);
+            }
+            Files.deleteIfExists(file);
+        }));
+    }
+
+    void delete(Path file) {
+        put(new Job(0, () -> Files.deleteIfExists(file)));
+    }
+
+    /**
+     * Waits until every job queued so far has run
+     * @return false when the timeout elapsed first
+     */
+    boolean flush(Duration timeout) {
+        CountDownLatch done = new CountDownLatch(1);
+        if (!put(new Job(0, done::countDown))) {
+            return false;
+        }
+        try {
+            return done.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Body spools refused because the queue was full
+     */
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    private boolean put(Job job) {
+        try {
+            queue.put(job);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while queueing an Allure attachment, it is skipped");
+            return false;
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                job.action.run();
+            } catch (IOException | RuntimeException e) {
+                // A failed write must not stop the writer
+                log.error("Failed to write Allure attachment: {}", e.getMessage());
+            } finally {
+                queuedBytes.addAndGet(-job.bytes);
+            }
+        }
+    }
+
+    private static void writeSpool(Path file, List<ByteBuffer> parts, boolean gzip) throws IOException {
+        OutputStream fileOut = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        try (OutputStream out = gzip ? new GZIPOutputStream(fileOut, BUFFER_SIZE) : fileOut) {
+            for (ByteBuffer part : parts) {
+                out.write(part.array(), part.arrayOffset() + part.position(), part.remaining());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    private static final class Job {
+
+        private final long bytes;
+        private final IoAction action;
+
+        private Job(long bytes, IoAction action) {
+            this.bytes = bytes;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package in.test.backend.listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import in.test.backend.base.HttpConnectionPool;
+import in.test.backend.base.RequestType;
+import in.test.backend.base.RestClient;
+import in.test.backend.interfaces.RequestListener;
+import in.test.backend.utils.LatencyHistogram;
+import io.restassured.response.Response;
+import io.restassured.specification.QueryableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.pool.PoolStats;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-endpoint RestClient metrics and writes them at suite end
+ * <p>
+ * Register it in testng.xml next to the retry listener; it adds itself as a global RestClient
+ * listener when the suite starts. For every method + endpoint (base path + path template) it keeps
+ * a lock-free latency histogram, status code counters, a failure counter and received bytes, and
+ * writes them to {@code endpoint-metrics.json} and {@code endpoint-metrics.prom} (Prometheus text
+ * format) in the directory given by the {@code metrics.output.dir} system property. The Prometheus
+ * file also carries the HTTP connection pool gauges, for sizing the pool against the thread count.
+ */
+@Slf4j
+public class EndpointMetricsListener implements RequestListener, ISuiteListener {
+
+    // System property keys
+    private static final String SYS_OUTPUT_DIR_KEY = "metrics.output.dir";
+
+    // Default values
+    private static final String DEFAULT_OUTPUT_DIR = "target/endpoint-metrics";
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p99.9"};
+
+    private final ConcurrentMap<String, EndpointMetrics> metrics = new ConcurrentHashMap<>();
+    // Keyed by the sent specification, one per attempt: async outcomes arrive on another thread than the send
+    private final ConcurrentMap<RequestSpecification, Long> requestStart = new ConcurrentHashMap<>();
+
+    @Override
+    public void onStart(ISuite suite) {
+        RestClient.addGlobalListener(this);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        RestClient.removeGlobalListener(this);
+        Path outputDir = Paths.get(System.getProperty(SYS_OUTPUT_DIR_KEY, DEFAULT_OUTPUT_DIR));
+        try {
+            writeJson(outputDir.resolve("endpoint-metrics.json"));
+            writePrometheus(outputDir.resolve("endpoint-metrics.prom"));
+            log.info("Endpoint metrics for {} endpoints written to {}", metrics.size(), outputDir.toAbsolutePath());
+            if (HttpConnectionPool.isEnabled()) {
+                log.info("HTTP connection pool: {}", HttpConnectionPool.getInstance().getTotalStats());
+            }
+        } catch (IOException e) {
+            log.error("Failed to write endpoint metrics: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onBeforeRequest(RequestType requestType, RequestSpecification requestSpec) {
+        if (requestSpec != null) {
+            requestStart.put(requestSpec, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onRequestSuccess(RequestType requestType, RequestSpecification requestSpec, Response response, int attemptNumber) {
+        EndpointMetrics endpoint = metricsFor(requestType, requestSpec);
+        recordLatency(endpoint, requestSpec);
+        LongAdder statusCount = endpoint.statusCounts.get(response.getStatusCode());
+        if (statusCount == null) {
+            statusCount = endpoint.statusCounts.computeIfAbsent(response.getStatusCode(), status -> new LongAdder());
+        }
+        statusCount.increment();
+        endpoint.responseBytes.add(responseSize(response));
+    }
+
+    @Override
+    public void onRequestFailure(RequestType requestType, RequestSpecification requestSpec, Exception exception, int attemptNumber) {
+        EndpointMetrics endpoint = metricsFor(requestType, requestSpec);
+        recordLatency(endpoint, requestSpec);
+        endpoint.failures.increment();
+    }
+
+    /**
+     * A call that failed before it was sent has no start time and adds no latency sample
+     */
+    private void recordLatency(EndpointMetrics endpoint, RequestSpecification requestSpec) {
+        Long start = requestSpec == null ? null : requestStart.remove(requestSpec);
+        if (start != null) {
+            endpoint.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    private EndpointMetrics metricsFor(RequestType requestType, RequestSpecification requestSpec) {
+        String key = requestType + " " + endpointOf(requestSpec);
+        EndpointMetrics endpoint = metrics.get(key);
+        if (endpoint == null) {
+            endpoint = metrics.computeIfAbsent(key, k -> new EndpointMetrics(requestType, endpointOf(requestSpec)));
+        }
+        return endpoint;
+    }
+
+    private static String endpointOf(RequestSpecification requestSpec) {
+        if (requestSpec == null) {
+            return "unknown";
+        }
+        QueryableRequestSpecification query = SpecificationQuerier.query(requestSpec);
+        String basePath = query.getBasePath() == null ? "" : query.getBasePath();
+        String path = query.getUserDefinedPath() == null ? "" : query.getUserDefinedPath();
+        String endpoint = RestClient.joinPath(basePath, path);
+        return endpoint.isEmpty() ? "/" : endpoint;
+    }
+
+    private static long responseSize(Response response) {
+        String contentLength = response.getHeader("Content-Length");
+        if (contentLength != null) {
+            try {
+                return Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                // fall through to the body size
+            }
+        }
+        return response.asByteArray().length;
+    }
+
+    private void writeJson(Path file) throws IOException {
+        Map<String, Object> report = new TreeMap<>();
+        metrics.forEach((key, endpoint) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("method", endpoint.method.name());
+            entry.put("endpoint", endpoint.endpoint);
+            entry.put("count", endpoint.latency.getCount());
+            entry.put("failures", endpoint.failures.sum());
+            entry.put("meanMs", endpoint.latency.getMeanNanos() / 1_000_000.0);
+            for (int i = 0; i < QUANTILES.length; i++) {
+                entry.put(QUANTILE_NAMES[i] + "Ms", endpoint.latency.getValueAtPercentileMillis(QUANTILES[i] * 100));
+            }
+            entry.put("maxMs", endpoint.latency.getMaxNanos() / 1_000_000.0);
+            entry.put("responseBytes", endpoint.responseBytes.sum());
+            Map<String, Long> statusCounts = new TreeMap<>();
+            endpoint.statusCounts.forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+            entry.put("statusCodes", statusCounts);
+            report.put(key, entry);
+        });
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private void writePrometheus(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("# HELP rest_client_request_duration_seconds RestClient call latency\n");
+            out.write("# TYPE rest_client_request_duration_seconds summary\n");
+            for (EndpointMetrics endpoint : metrics.values()) {
+                for (double quantile : QUANTILES) {
+                    out.write("rest_client_request_duration_seconds{" + endpoint.labels + ",quantile=\"" + quantile + "\"} "
+                            + endpoint.latency.getValueAtPercentile(quantile * 100) / 1e9 + "\n");
+                }
+                out.write("rest_client_request_duration_seconds_sum{" + endpoint.labels + "} " + endpoint.latency.getTotalNanos() / 1e9 + "\n");
+                out.write("rest_client_request_duration_seconds_count{" + endpoint.labels + "} " + endpoint.latency.getCount() + "\n");
+            }
+            out.write("# HELP rest_client_responses_total Responses received by status code\n");
+            out.write("# TYPE rest_client_responses_total counter\n");
+            for (EndpointMetrics endpoint : metrics.values()) {
+                for (Map.Entry<Integer, LongAdder> status : endpoint.statusCounts.entrySet()) {
+                    out.write("rest_client_responses_total{" + endpoint.labels + ",status=\"" + status.getKey() + "\"} "
+                            + status.getValue().sum() + "\n");
+                }
+            }
+            out.write("# HELP rest_client_request_failures_total Calls that failed without a response\n");
+            out.write("# TYPE rest_client_request_failures_total counter\n");
+            for (EndpointMetrics endpoint : metrics.values()) {
+                out.write("rest_client_request_failures_total{" + endpoint.labels + "} " + endpoint.failures.sum() + "\n");
+            }
+            out.write("# HELP rest_client_response_bytes_total Response body bytes received\n");
+            out.write("# TYPE rest_client_response_bytes_total counter\n");
+            for (EndpointMetrics endpoint : metrics.values()) {
+                out.write("rest_client_response_bytes_total{" + endpoint.labels + "} " + endpoint.responseBytes.sum() + "\n");
+            }
+            if (HttpConnectionPool.isEnabled()) {
+                PoolStats pool = HttpConnectionPool.getInstance().getTotalStats();
+                out.write("# HELP rest_client_pool_connections Pooled HTTP connections by state at suite end\n");
+                out.write("# TYPE rest_client_pool_connections gauge\n");
+                out.write("rest_client_pool_connections{state=\"leased\"} " + pool.getLeased() + "\n");
+                out.write("rest_client_pool_connections{state=\"available\"} " + pool.getAvailable() + "\n");
+                out.write("rest_client_pool_connections{state=\"pending\"} " + pool.getPending() + "\n");
+                out.write("rest_client_pool_connections{state=\"max\"} " + pool.getMax() + "\n");
+            }
+        }
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class EndpointMetrics {
+
+        private final RequestType method;
+        private final String endpoint;
+        private final String labels;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+
+        private EndpointMetrics(RequestType method, String endpoint) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.labels = "method=\"" + method + "\",endpoint=\"" + escapeLabel(endpoint) + "\"";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package in.test.backend.listeners;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Suite-wide retry budget
+ * <p>
+ * Allows {@code minRetries} plus {@code ratio} retries per executed test, so a suite where most
+ * tests fail stops retrying once it has spent its share instead of retrying every test.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final long minRetries;
+    private final LongAdder executed = new LongAdder();
+    private final AtomicLong used = new AtomicLong();
+
+    public RetryBudget(double ratio, long minRetries) {
+        this.ratio = ratio;
+        this.minRetries = minRetries;
+    }
+
+    public void recordExecution() {
+        executed.increment();
+    }
+
+    /**
+     * Takes one retry from the budget
+     * @return false when the budget is spent
+     */
+    public boolean tryAcquire() {
+        long allowed = getAllowed();
+        while (true) {
+            long current = used.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (used.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public long getAllowed() {
+        return minRetries + (long) (ratio * executed.sum());
+    }
+
+    public long getUsed() {
+        return used.get();
+    }
+}
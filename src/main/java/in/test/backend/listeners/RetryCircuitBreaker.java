@@ -0,0 +1,76 @@
+package in.test.backend.listeners;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stops test retries while the recent failure rate is above a threshold
+ * <p>
+ * Keeps the outcome of the last {@code windowSize} test attempts. Once the window is at least half
+ * full and its failure rate reaches {@code failureRateThreshold}, the breaker opens and no test is
+ * retried for {@code cooldownMillis}; after that it closes with an empty window.
+ * Called once per test attempt, so a plain monitor is cheap enough.
+ */
+@Slf4j
+public class RetryCircuitBreaker {
+
+    private final boolean[] window;
+    private final double failureRateThreshold;
+    private final long cooldownMillis;
+    private int next;
+    private int size;
+    private int failures;
+    private long openedAt = -1;
+
+    public RetryCircuitBreaker(int windowSize, double failureRateThreshold, long cooldownMillis) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.failureRateThreshold = failureRateThreshold;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    public synchronized void recordOutcome(boolean failed) {
+        if (size == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            size++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+
+        if (openedAt < 0 && size * 2 >= window.length && getFailureRate() >= failureRateThreshold) {
+            openedAt = System.currentTimeMillis();
+            log.warn("Retry circuit breaker opened: {}/{} recent test attempts failed, retries paused for {} ms",
+                    failures, size, cooldownMillis);
+        }
+    }
+
+    /**
+     * @return false while the breaker is open
+     */
+    public synchronized boolean allowsRetry() {
+        if (openedAt < 0) {
+            return true;
+        }
+        if (System.currentTimeMillis() - openedAt < cooldownMillis) {
+            return false;
+        }
+        log.info("Retry circuit breaker closed after cooldown");
+        openedAt = -1;
+        size = 0;
+        failures = 0;
+        next = 0;
+        return true;
+    }
+
+    public synchronized boolean isOpen() {
+        return openedAt >= 0;
+    }
+
+    private double getFailureRate() {
+        return size == 0 ? 0.0 : (double) failures / size;
+    }
+}
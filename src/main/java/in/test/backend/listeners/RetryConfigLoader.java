@@ -0,0 +1,115 @@
+package in.test.backend.listeners;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses named retry configurations from retry-config.xml
+ * <pre>
+ * &lt;retry-configs&gt;
+ *     &lt;retry-config name="default" maxRetries="3" delayInSeconds="2"/&gt;
+ *     &lt;retry-config name="no-retry" enabled="false"/&gt;
+ * &lt;/retry-configs&gt;
+ * </pre>
+ * Attributes left out of an entry are not overridden by it.
+ */
+@Slf4j
+public class RetryConfigLoader {
+
+    /**
+     * One named entry; null fields were not set in the file
+     */
+    @Getter
+    public static class RetryConfig {
+        private final String name;
+        private final Boolean enabled;
+        private final Integer maxRetries;
+        private final Integer delayInSeconds;
+
+        RetryConfig(String name, Boolean enabled, Integer maxRetries, Integer delayInSeconds) {
+            this.name = name;
+            this.enabled = enabled;
+            this.maxRetries = maxRetries;
+            this.delayInSeconds = delayInSeconds;
+        }
+    }
+
+    /**
+     * Loads the file from the file system, or from the classpath when no such file exists
+     * @param location file path or classpath resource (a leading '/' is accepted)
+     * @return configurations by name, empty when the file cannot be found or parsed
+     */
+    public static Map<String, RetryConfig> load(String location) {
+        if (location == null || location.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        try (InputStream in = open(location.trim())) {
+            if (in == null) {
+                log.info("Retry config file '{}' not found, using suite parameters only", location);
+                return Collections.emptyMap();
+            }
+            return parse(in);
+        } catch (Exception e) {
+            log.warn("Failed to load retry config file '{}': {}", location, e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
+
+    private static InputStream open(String location) throws Exception {
+        Path path = Paths.get(location);
+        if (Files.isRegularFile(path)) {
+            return Files.newInputStream(path);
+        }
+        String resource = location.startsWith("/") ? location.substring(1) : location;
+        return RetryConfigLoader.class.getClassLoader().getResourceAsStream(resource);
+    }
+
+    private static Map<String, RetryConfig> parse(InputStream in) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document document = factory.newDocumentBuilder().parse(in);
+
+        Map<String, RetryConfig> configs = new HashMap<>();
+        NodeList entries = document.getElementsByTagName("retry-config");
+        for (int i = 0; i < entries.getLength(); i++) {
+            Element entry = (Element) entries.item(i);
+            String name = entry.getAttribute("name").trim();
+            if (name.isEmpty()) {
+                log.warn("Ignoring retry-config entry without a name");
+                continue;
+            }
+            configs.put(name, new RetryConfig(name,
+                    entry.hasAttribute("enabled") ? Boolean.valueOf(entry.getAttribute("enabled").trim()) : null,
+                    intAttribute(entry, "maxRetries"),
+                    intAttribute(entry, "delayInSeconds")));
+        }
+        log.info("Loaded {} retry configurations", configs.size());
+        return configs;
+    }
+
+    private static Integer intAttribute(Element entry, String attribute) {
+        if (!entry.hasAttribute(attribute)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(entry.getAttribute(attribute).trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid {} in retry-config '{}': '{}'", attribute, entry.getAttribute("name"), entry.getAttribute(attribute));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package in.test.backend.listeners;
+
+import in.test.backend.annotations.Retry;
+import in.test.backend.listeners.RetryConfigLoader.RetryConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.ITestNGMethod;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable map of test method to {@link TestRetryPolicy}
+ * <p>
+ * Each policy is resolved once, when a test starts, from these sources (lowest priority first):
+ * <ol>
+ *     <li>defaults</li>
+ *     <li>the retry-config.xml entry named by {@code retryConfigName}</li>
+ *     <li>system properties</li>
+ *     <li>suite parameters</li>
+ *     <li>class-level {@link Retry}</li>
+ *     <li>method-level {@link Retry}</li>
+ * </ol>
+ * A {@link Retry} annotation applies its {@code configName} entry first and then its explicit
+ * {@code maxRetries} and {@code delayInSeconds}.
+ */
+@Slf4j
+public class RetryPolicyRegistry {
+
+    private static final RetryPolicyRegistry EMPTY = new RetryPolicyRegistry(
+            Collections.emptyMap(), null, suitePolicy(Collections.emptyMap(), Collections.emptyMap()));
+
+    private final Map<Method, TestRetryPolicy> policies;
+    // Null until the retry config file has been read
+    private final Map<String, RetryConfig> configs;
+    private final TestRetryPolicy defaultPolicy;
+
+    private RetryPolicyRegistry(Map<Method, TestRetryPolicy> policies, Map<String, RetryConfig> configs,
+                                TestRetryPolicy defaultPolicy) {
+        this.policies = policies;
+        this.configs = configs;
+        this.defaultPolicy = defaultPolicy;
+    }
+
+    public static RetryPolicyRegistry empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns a registry that also holds policies for the given methods. The retry config file is
+     * parsed only the first time.
+     * @param methods    test methods of a starting test
+     * @param parameters parameters of that test, including inherited suite parameters
+     * @return new registry; this one is unchanged
+     */
+    public RetryPolicyRegistry with(ITestNGMethod[] methods, Map<String, String> parameters) {
+        Map<String, RetryConfig> loadedConfigs = configs == null
+                ? RetryConfigLoader.load(RetryProperties.getConfigFilePath(parameters.get(RetryProperties.getConfigFileKey())))
+                : configs;
+        TestRetryPolicy suitePolicy = suitePolicy(parameters, loadedConfigs);
+
+        Map<Method, TestRetryPolicy> resolved = new HashMap<>(policies);
+        for (ITestNGMethod testMethod : methods) {
+            Method method = testMethod.getConstructorOrMethod().getMethod();
+            if (method != null) {
+                TestRetryPolicy policy = resolve(method, suitePolicy, loadedConfigs);
+                resolved.put(method, policy);
+                log.debug("Retry policy for {}: {}", testMethod.getQualifiedName(), policy);
+            }
+        }
+        return new RetryPolicyRegistry(Map.copyOf(resolved), loadedConfigs, suitePolicy);
+    }
+
+    /**
+     * @return the method's policy, or the suite policy for methods that were not registered
+     */
+    public TestRetryPolicy get(Method method) {
+        TestRetryPolicy policy = method == null ? null : policies.get(method);
+        return policy != null ? policy : defaultPolicy;
+    }
+
+    public TestRetryPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    private static TestRetryPolicy suitePolicy(Map<String, String> parameters, Map<String, RetryConfig> configs) {
+        String maxRetriesParameter = parameters.get(RetryProperties.getMaxRetriesKey());
+        String delayParameter = parameters.get(RetryProperties.getDelayKey());
+        String enabledParameter = parameters.get(RetryProperties.getRetryEnabledKey());
+        RetryConfig config = configs.get(RetryProperties.getConfigName(parameters.get(RetryProperties.getConfigNameKey())));
+
+        // Suite parameters and system properties win over the named config, which wins over defaults
+        int maxRetries = isSet(maxRetriesParameter, RetryProperties.getSysMaxRetriesKey()) || config == null || config.getMaxRetries() == null
+                ? RetryProperties.getMaxRetries(maxRetriesParameter)
+                : config.getMaxRetries();
+        int delayInSeconds = isSet(delayParameter, RetryProperties.getSysDelayKey()) || config == null || config.getDelayInSeconds() == null
+                ? RetryProperties.getDelayInSeconds(delayParameter)
+                : config.getDelayInSeconds();
+        boolean enabled = isSet(enabledParameter, RetryProperties.getSysRetryEnabledKey()) || config == null || config.getEnabled() == null
+                ? RetryProperties.isRetryEnabled(enabledParameter)
+                : config.getEnabled();
+
+        return TestRetryPolicy.builder()
+                .enabled(enabled)
+                .maxRetries(maxRetries)
+                .delayMillis(delayInSeconds * 1000L)
+                .source(config == null ? "suite" : "suite+" + config.getName())
+                .build();
+    }
+
+    private static TestRetryPolicy resolve(Method method, TestRetryPolicy suitePolicy, Map<String, RetryConfig> configs) {
+        TestRetryPolicy policy = suitePolicy;
+        Retry classRetry = method.getDeclaringClass().getAnnotation(Retry.class);
+        if (classRetry != null) {
+            policy = apply(policy, classRetry, configs, "class");
+        }
+        Retry methodRetry = method.getAnnotation(Retry.class);
+        if (methodRetry != null) {
+            policy = apply(policy, methodRetry, configs, "method");
+        }
+        return policy;
+    }
+
+    private static TestRetryPolicy apply(TestRetryPolicy policy, Retry retry, Map<String, RetryConfig> configs, String level) {
+        TestRetryPolicy.TestRetryPolicyBuilder builder = policy.toBuilder()
+                .enabled(retry.enable())
+                .source(policy.getSource() + "+" + level);
+        if (!retry.configName().isEmpty()) {
+            RetryConfig config = configs.get(retry.configName());
+            if (config == null) {
+                log.warn("Unknown retry config '{}' in {}-level @Retry", retry.configName(), level);
+            } else {
+                if (config.getEnabled() != null) {
+                    builder.enabled(retry.enable() && config.getEnabled());
+                }
+                if (config.getMaxRetries() != null) {
+                    builder.maxRetries(config.getMaxRetries());
+                }
+                if (config.getDelayInSeconds() != null) {
+                    builder.delayMillis(config.getDelayInSeconds() * 1000L);
+                }
+            }
+        }
+        if (retry.maxRetries() >= 0) {
+            builder.maxRetries(retry.maxRetries());
+        }
+        if (retry.delayInSeconds() >= 0) {
+            builder.delayMillis(retry.delayInSeconds() * 1000L);
+        }
+        return builder.build();
+    }
+
+    private static boolean isSet(String suiteParameter, String systemPropertyKey) {
+        if (suiteParameter != null && !suiteParameter.trim().isEmpty()) {
+            return true;
+        }
+        String systemProperty = System.getProperty(systemPropertyKey);
+        return systemProperty != null && !systemProperty.trim().isEmpty();
+    }
+}
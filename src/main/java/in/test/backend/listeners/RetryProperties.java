@@ -15,6 +15,11 @@ public class RetryProperties {
     private static final String RETRY_ENABLED_KEY = "retryEnabled";
     private static final String CONFIG_NAME_KEY = "retryConfigName";
     private static final String CONFIG_FILE_KEY = "retryConfigFile";
+    private static final String BUDGET_RATIO_KEY = "retryBudgetRatio";
+    private static final String BUDGET_MIN_KEY = "retryBudgetMin";
+    private static final String BREAKER_FAILURE_RATE_KEY = "circuitBreakerFailureRate";
+    private static final String BREAKER_WINDOW_SIZE_KEY = "circuitBreakerWindowSize";
+    private static final String BREAKER_COOLDOWN_KEY = "circuitBreakerCooldownInSeconds";
     
     // System property keys
     private static final String SYS_MAX_RETRIES_KEY = "retry.maxRetries";
@@ -22,6 +27,11 @@ public class RetryProperties {
     private static final String SYS_RETRY_ENABLED_KEY = "retry.enabled";
     private static final String SYS_CONFIG_NAME_KEY = "retry.config.name";
     private static final String SYS_CONFIG_FILE_KEY = "retry.config.file";
+    private static final String SYS_BUDGET_RATIO_KEY = "retry.budget.ratio";
+    private static final String SYS_BUDGET_MIN_KEY = "retry.budget.min";
+    private static final String SYS_BREAKER_FAILURE_RATE_KEY = "retry.circuitBreaker.failureRate";
+    private static final String SYS_BREAKER_WINDOW_SIZE_KEY = "retry.circuitBreaker.windowSize";
+    private static final String SYS_BREAKER_COOLDOWN_KEY = "retry.circuitBreaker.cooldown";
     
     // Default values
     private static final int DEFAULT_MAX_RETRIES = 3;
@@ -29,6 +39,11 @@ public class RetryProperties {
     private static final boolean DEFAULT_RETRY_ENABLED = true;
     private static final String DEFAULT_CONFIG_NAME = "default";
     private static final String DEFAULT_CONFIG_FILE = "src/main/resources/retry-config.xml";
+    private static final double DEFAULT_BUDGET_RATIO = 0.1;
+    private static final int DEFAULT_BUDGET_MIN = 10;
+    private static final double DEFAULT_BREAKER_FAILURE_RATE = 0.5;
+    private static final int DEFAULT_BREAKER_WINDOW_SIZE = 20;
+    private static final int DEFAULT_BREAKER_COOLDOWN = 60;
     
     /**
      * Gets the maximum number of retries from suite parameter, system property, or default
@@ -176,6 +191,79 @@ public class RetryProperties {
         return DEFAULT_CONFIG_FILE;
     }
 
+    /**
+     * Gets the share of executed tests that may be retried suite-wide
+     * @param suiteParameter Suite parameter value (can be null)
+     * @return Retries allowed per executed test, e.g. 0.1 for 10%
+     */
+    public static double getBudgetRatio(String suiteParameter) {
+        return getDouble(suiteParameter, SYS_BUDGET_RATIO_KEY, DEFAULT_BUDGET_RATIO, "retry budget ratio");
+    }
+
+    /**
+     * Gets the number of retries allowed suite-wide regardless of the executed test count
+     * @param suiteParameter Suite parameter value (can be null)
+     * @return Minimum retry budget
+     */
+    public static int getBudgetMin(String suiteParameter) {
+        return (int) getDouble(suiteParameter, SYS_BUDGET_MIN_KEY, DEFAULT_BUDGET_MIN, "retry budget minimum");
+    }
+
+    /**
+     * Gets the recent failure rate at which the retry circuit breaker opens
+     * @param suiteParameter Suite parameter value (can be null)
+     * @return Failure rate between 0 and 1
+     */
+    public static double getCircuitBreakerFailureRate(String suiteParameter) {
+        return getDouble(suiteParameter, SYS_BREAKER_FAILURE_RATE_KEY, DEFAULT_BREAKER_FAILURE_RATE, "circuit breaker failure rate");
+    }
+
+    /**
+     * Gets the number of recent test attempts the circuit breaker looks at
+     * @param suiteParameter Suite parameter value (can be null)
+     * @return Window size
+     */
+    public static int getCircuitBreakerWindowSize(String suiteParameter) {
+        return (int) getDouble(suiteParameter, SYS_BREAKER_WINDOW_SIZE_KEY, DEFAULT_BREAKER_WINDOW_SIZE, "circuit breaker window size");
+    }
+
+    /**
+     * Gets how long the circuit breaker stays open
+     * @param suiteParameter Suite parameter value (can be null)
+     * @return Cooldown in seconds
+     */
+    public static int getCircuitBreakerCooldownInSeconds(String suiteParameter) {
+        return (int) getDouble(suiteParameter, SYS_BREAKER_COOLDOWN_KEY, DEFAULT_BREAKER_COOLDOWN, "circuit breaker cooldown");
+    }
+
+    private static double getDouble(String suiteParameter, String systemPropertyKey, double defaultValue, String name) {
+        // Priority 1: Suite parameter
+        if (suiteParameter != null && !suiteParameter.trim().isEmpty()) {
+            try {
+                double value = Double.parseDouble(suiteParameter.trim());
+                log.debug("Using {} from suite parameter: {}", name, value);
+                return value;
+            } catch (NumberFormatException e) {
+                log.warn("Invalid suite parameter for {}: '{}', checking system property", name, suiteParameter);
+            }
+        }
+
+        // Priority 2: System property
+        String systemProperty = System.getProperty(systemPropertyKey);
+        if (systemProperty != null && !systemProperty.trim().isEmpty()) {
+            try {
+                double value = Double.parseDouble(systemProperty.trim());
+                log.debug("Using {} from system property: {}", name, value);
+                return value;
+            } catch (NumberFormatException e) {
+                log.warn("Invalid system property for {}: '{}', using default", name, systemProperty);
+            }
+        }
+
+        // Priority 3: Default value
+        log.debug("Using default {}: {}", name, defaultValue);
+        return defaultValue;
+    }
 
     // Getter methods for property keys (useful for external configuration)
     
@@ -198,6 +286,26 @@ public class RetryProperties {
     public static String getConfigFileKey() {
         return CONFIG_FILE_KEY;
     }
+
+    public static String getBudgetRatioKey() {
+        return BUDGET_RATIO_KEY;
+    }
+
+    public static String getBudgetMinKey() {
+        return BUDGET_MIN_KEY;
+    }
+
+    public static String getCircuitBreakerFailureRateKey() {
+        return BREAKER_FAILURE_RATE_KEY;
+    }
+
+    public static String getCircuitBreakerWindowSizeKey() {
+        return BREAKER_WINDOW_SIZE_KEY;
+    }
+
+    public static String getCircuitBreakerCooldownKey() {
+        return BREAKER_COOLDOWN_KEY;
+    }
     
     // Getter methods for system property keys
     
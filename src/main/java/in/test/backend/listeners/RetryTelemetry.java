@@ -0,0 +1,202 @@
+package in.test.backend.listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Retry and flakiness counters per test method and per test class
+ * <p>
+ * Counters are {@link LongAdder}s, so parallel tests updating the same class do not contend. Time
+ * wasted is what retries added to the suite: the delays slept before retrying plus the run time of
+ * every attempt after the first. A test that passes on retry is counted as flaky.
+ */
+public class RetryTelemetry {
+
+    private final ConcurrentMap<String, Stats> methods = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Stats> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Records one finished attempt
+     * @param attempt 0 for the first run, 1 for the first retry, ...
+     */
+    public void recordAttempt(String className, String methodName, int attempt, long durationMillis) {
+        for (Stats stats : statsFor(className, methodName)) {
+            stats.attempts.increment();
+            if (attempt > 0) {
+                stats.retries.increment();
+                stats.reexecutionMillis.add(durationMillis);
+            }
+        }
+    }
+
+    public void recordRetrySleep(String className, String methodName, long sleepMillis) {
+        for (Stats stats : statsFor(className, methodName)) {
+            stats.retrySleepMillis.add(sleepMillis);
+        }
+    }
+
+    /**
+     * Records the outcome of a test that will not run again
+     * @param retried whether it took more than one attempt
+     */
+    public void recordOutcome(String className, String methodName, Outcome outcome, boolean retried) {
+        for (Stats stats : statsFor(className, methodName)) {
+            switch (outcome) {
+                case PASSED:
+                    stats.passed.increment();
+                    if (retried) {
+                        stats.flaky.increment();
+                    }
+                    break;
+                case FAILED:
+                    stats.failed.increment();
+                    break;
+                default:
+                    stats.skipped.increment();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * @return methods that retried or failed, most time wasted first
+     */
+    public List<Stats> getMethodsByWastedTime() {
+        return ranked(methods);
+    }
+
+    /**
+     * @return classes that retried or failed, most time wasted first
+     */
+    public List<Stats> getClassesByWastedTime() {
+        return ranked(classes);
+    }
+
+    public long getTotalWastedMillis() {
+        return classes.values().stream().mapToLong(Stats::getWastedMillis).sum();
+    }
+
+    /**
+     * Writes the ranked method and class statistics as JSON
+     */
+    public void writeReport(Path file, String suiteName) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("suite", suiteName);
+        report.put("totalWastedMillis", getTotalWastedMillis());
+        report.put("methods", getMethodsByWastedTime().stream().map(Stats::toJson).collect(Collectors.toList()));
+        report.put("classes", getClassesByWastedTime().stream().map(Stats::toJson).collect(Collectors.toList()));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+    }
+
+    private Stats[] statsFor(String className, String methodName) {
+        String methodKey = className + "." + methodName;
+        Stats method = methods.get(methodKey);
+        if (method == null) {
+            method = methods.computeIfAbsent(methodKey, key -> new Stats(key, className));
+        }
+        Stats testClass = classes.get(className);
+        if (testClass == null) {
+            testClass = classes.computeIfAbsent(className, key -> new Stats(key, className));
+        }
+        return new Stats[]{method, testClass};
+    }
+
+    private static List<Stats> ranked(ConcurrentMap<String, Stats> stats) {
+        List<Stats> ranked = new ArrayList<>();
+        for (Stats entry : stats.values()) {
+            if (entry.retries.sum() > 0 || entry.failed.sum() > 0) {
+                ranked.add(entry);
+            }
+        }
+        ranked.sort(Comparator.comparingLong(Stats::getWastedMillis).reversed().thenComparing(Stats::getName));
+        return ranked;
+    }
+
+    public enum Outcome {
+        PASSED,
+        FAILED,
+        SKIPPED
+    }
+
+    /**
+     * Counters for one method or class
+     */
+    public static final class Stats {
+
+        private final String name;
+        private final String className;
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder passed = new LongAdder();
+        private final LongAdder flaky = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder retrySleepMillis = new LongAdder();
+        private final LongAdder reexecutionMillis = new LongAdder();
+
+        private Stats(String name, String className) {
+            this.name = name;
+            this.className = className;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        public long getFlaky() {
+            return flaky.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        public long getWastedMillis() {
+            return retrySleepMillis.sum() + reexecutionMillis.sum();
+        }
+
+        private Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("name", name);
+            json.put("class", className);
+            json.put("wastedMillis", getWastedMillis());
+            json.put("attempts", attempts.sum());
+            json.put("retries", retries.sum());
+            json.put("passed", passed.sum());
+            json.put("flaky", flaky.sum());
+            json.put("failed", failed.sum());
+            json.put("skipped", skipped.sum());
+            json.put("retrySleepMillis", retrySleepMillis.sum());
+            json.put("reexecutionMillis", reexecutionMillis.sum());
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + getWastedMillis() + " ms wasted, " + retries.sum() + " retries, "
+                    + flaky.sum() + " flaky, " + failed.sum() + " failed";
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package in.test.backend.listeners;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import in.test.backend.shard.ClassDurationHistory;
+import in.test.backend.shard.ShardPlanner;
+import in.test.backend.shard.ShardReportMerger;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.IAlterSuiteListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlPackage;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs one shard of the suite and records how long each test class took
+ * <p>
+ * Register it at suite level in testng.xml. With {@code -Dshard.count=N -Dshard.index=I} it keeps
+ * only the classes {@link ShardPlanner} assigns to shard {@code I}, planned from the duration history
+ * in {@code shard.history.file}. At suite end the shard writes {@code shard-<I>/shard-summary.json}
+ * under {@code shard.output.dir} for {@code ShardReportMerger}, which also updates the history.
+ * Without sharding the listener updates the history itself.
+ */
+@Slf4j
+public class ShardListener implements IAlterSuiteListener, ISuiteListener, ITestListener {
+
+    // System property keys
+    private static final String SYS_SHARD_INDEX_KEY = "shard.index";
+    private static final String SYS_SHARD_COUNT_KEY = "shard.count";
+    private static final String SYS_HISTORY_FILE_KEY = "shard.history.file";
+    private static final String SYS_OUTPUT_DIR_KEY = "shard.output.dir";
+
+    // Default values
+    private static final String DEFAULT_HISTORY_FILE = "test-history/class-durations.json";
+    private static final String DEFAULT_OUTPUT_DIR = "target/shards";
+
+    // TestNG may create separate instances for altering the suite and listening to it
+    private static volatile ShardPlanner.Shard plannedShard;
+    private static final ConcurrentMap<String, LongAdder> CLASS_MILLIS = new ConcurrentHashMap<>();
+    private static volatile long suiteStartMillis;
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        int shardCount = getShardCount();
+        if (shardCount <= 1) {
+            return;
+        }
+        int shardIndex = getShardIndex();
+        if (shardIndex < 0 || shardIndex >= shardCount) {
+            throw new IllegalArgumentException("shard.index must be in [0, " + shardCount + "), was " + shardIndex);
+        }
+
+        List<XmlTest> tests = new ArrayList<>();
+        suites.forEach(suite -> collectTests(suite, tests));
+        Set<String> classNames = new TreeSet<>();
+        for (XmlTest test : tests) {
+            expandPackages(test);
+            test.getXmlClasses().forEach(xmlClass -> classNames.add(xmlClass.getName()));
+        }
+
+        List<ShardPlanner.Shard> plan = ShardPlanner.plan(classNames, ClassDurationHistory.load(getHistoryFile()), shardCount);
+        plan.forEach(shard -> log.info("Shard plan: {}", shard));
+        plannedShard = plan.get(shardIndex);
+        Set<String> keep = new HashSet<>(plannedShard.getClassNames());
+        for (XmlTest test : tests) {
+            test.getXmlClasses().removeIf(xmlClass -> !keep.contains(xmlClass.getName()));
+        }
+        suites.forEach(ShardListener::dropEmptyTests);
+        log.info("Running shard {} of {}: {}", shardIndex, shardCount, plannedShard);
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        CLASS_MILLIS.clear();
+        suiteStartMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public void onFinish(ITestContext context) {
+        // Configuration methods count too: a slow @BeforeClass holds the shard up like a slow test
+        record(context.getPassedTests().getAllResults());
+        record(context.getFailedTests().getAllResults());
+        record(context.getSkippedTests().getAllResults());
+        record(context.getFailedButWithinSuccessPercentageTests().getAllResults());
+        record(context.getPassedConfigurations().getAllResults());
+        record(context.getFailedConfigurations().getAllResults());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        Map<String, Long> classMillis = new TreeMap<>();
+        CLASS_MILLIS.forEach((className, millis) -> classMillis.put(className, millis.sum()));
+        try {
+            if (getShardCount() <= 1) {
+                Path historyFile = getHistoryFile();
+                ClassDurationHistory history = ClassDurationHistory.load(historyFile);
+                classMillis.forEach(history::record);
+                history.save(historyFile);
+                log.info("Class duration history for {} classes written to {}", history.size(), historyFile.toAbsolutePath());
+            } else {
+                Path summaryFile = getOutputDir().resolve("shard-" + getShardIndex()).resolve(ShardReportMerger.SUMMARY_FILE);
+                writeSummary(summaryFile, suite, classMillis);
+                log.info("Shard summary written to {}", summaryFile.toAbsolutePath());
+            }
+        } catch (IOException e) {
+            log.error("Failed to write shard results: {}", e.getMessage());
+        }
+    }
+
+    private static void record(Collection<ITestResult> results) {
+        for (ITestResult result : results) {
+            if (result.getTestClass() == null || result.getEndMillis() < result.getStartMillis()) {
+                continue;
+            }
+            String className = result.getTestClass().getName();
+            LongAdder millis = CLASS_MILLIS.get(className);
+            if (millis == null) {
+                millis = CLASS_MILLIS.computeIfAbsent(className, key -> new LongAdder());
+            }
+            millis.add(result.getEndMillis() - result.getStartMillis());
+        }
+    }
+
+    private static void writeSummary(Path file, ISuite suite, Map<String, Long> classMillis) throws IOException {
+        int passed = 0;
+        int failed = 0;
+        int skipped = 0;
+        for (ISuiteResult result : suite.getResults().values()) {
+            ITestContext context = result.getTestContext();
+            passed += context.getPassedTests().size();
+            failed += context.getFailedTests().size();
+            skipped += context.getSkippedTests().size();
+        }
+        ShardPlanner.Shard shard = plannedShard;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("shardIndex", getShardIndex());
+        summary.put("shardCount", getShardCount());
+        summary.put("suite", suite.getName());
+        summary.put("wallMillis", System.currentTimeMillis() - suiteStartMillis);
+        summary.put("estimatedMillis", shard == null ? 0 : shard.getEstimatedMillis());
+        summary.put("plannedClasses", shard == null ? Collections.emptyList() : shard.getClassNames());
+        summary.put("passed", passed);
+        summary.put("failed", failed);
+        summary.put("skipped", skipped);
+        Map<String, Object> retries = new LinkedHashMap<>();
+        retries.put("totalRetries", TestNGRetryListener.getTotalRetries());
+        retries.put("totalFailedTests", TestNGRetryListener.getTotalFailedTests());
+        retries.put("totalSuccessfulRetries", TestNGRetryListener.getTotalSuccessfulRetries());
+        summary.put("retries", retries);
+        summary.put("classMillis", classMillis);
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), summary);
+    }
+
+    private static void collectTests(XmlSuite suite, List<XmlTest> tests) {
+        tests.addAll(suite.getTests());
+        suite.getChildSuites().forEach(child -> collectTests(child, tests));
+    }
+
+    // Package entries are resolved to their classes so they can be split like explicit classes
+    private static void expandPackages(XmlTest test) {
+        if (test.getXmlPackages().isEmpty()) {
+            return;
+        }
+        List<XmlClass> classes = new ArrayList<>(test.getXmlClasses());
+        for (XmlPackage xmlPackage : test.getXmlPackages()) {
+            classes.addAll(xmlPackage.getXmlClasses());
+        }
+        test.setXmlPackages(new ArrayList<>());
+        test.setXmlClasses(classes);
+    }
+
+    private static void dropEmptyTests(XmlSuite suite) {
+        suite.getTests().removeIf(test -> test.getXmlClasses().isEmpty());
+        suite.getChildSuites().forEach(ShardListener::dropEmptyTests);
+    }
+
+    private static int getShardIndex() {
+        return Integer.parseInt(System.getProperty(SYS_SHARD_INDEX_KEY, "0").trim());
+    }
+
+    private static int getShardCount() {
+        return Integer.parseInt(System.getProperty(SYS_SHARD_COUNT_KEY, "1").trim());
+    }
+
+    private static Path getHistoryFile() {
+        return Paths.get(System.getProperty(SYS_HISTORY_FILE_KEY, DEFAULT_HISTORY_FILE));
+    }
+
+    private static Path getOutputDir() {
+        return Paths.get(System.getProperty(SYS_OUTPUT_DIR_KEY, DEFAULT_OUTPUT_DIR));
+    }
+}
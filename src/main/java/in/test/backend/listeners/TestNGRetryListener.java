@@ -5,10 +5,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.testng.*;
 import org.testng.annotations.ITestAnnotation;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * TestNG Retry Analyzer that integrates with XML configuration and suite parameters
@@ -20,58 +27,85 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - Method and class-level retry annotations
  * - Global retry statistics tracking
  * - Configurable retry delays
+ * - Suite-wide retry budget and a circuit breaker that stops retrying when most recent attempts fail
+ * - Per-method and per-class flakiness report, ranked by the time retries added to the suite
+ *
+ * TestNG creates a separate analyzer instance per test method, so retry state is static and keyed
+ * per test instance and parameter set.
  */
 @Slf4j
-public class TestNGRetryListener implements IRetryAnalyzer, IAnnotationTransformer, ITestListener {
+public class TestNGRetryListener implements IRetryAnalyzer, IAnnotationTransformer, ITestListener, ISuiteListener {
     
-    // Global retry statistics
-    private static final AtomicInteger TOTAL_RETRIES = new AtomicInteger(0);
-    private static final AtomicInteger TOTAL_FAILED_TESTS = new AtomicInteger(0);
-    private static final AtomicInteger TOTAL_SUCCESSFUL_RETRIES = new AtomicInteger(0);
-    private final AtomicInteger retries = new AtomicInteger(1);
+    // System property keys
+    private static final String SYS_REPORT_DIR_KEY = "retry.report.dir";
+
+    // Default values
+    private static final String DEFAULT_REPORT_DIR = "target/flakiness";
 
+    private static final String ATTEMPT_ATTRIBUTE = TestNGRetryListener.class.getName() + ".attempt";
+    private static final int TOP_OFFENDERS = 5;
 
+    // Global retry statistics
+    private static final LongAdder TOTAL_RETRIES = new LongAdder();
+    private static final LongAdder TOTAL_FAILED_TESTS = new LongAdder();
+    private static final LongAdder TOTAL_SUCCESSFUL_RETRIES = new LongAdder();
 
+    // Per-method and per-class retry telemetry, replaced when a suite starts
+    private static volatile RetryTelemetry telemetry = new RetryTelemetry();
 
     // Per-test retry tracking
-    private final ConcurrentHashMap<String, AtomicInteger> testRetryCount = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, AtomicInteger> testRetryCount = new ConcurrentHashMap<>();
     
-    // Configuration
-    private static int MAX_RETRIES_FOR_TEST = 3;
-    private static int RETRY_DELAY_IN_SECONDS = 1;
-    private static boolean RETRY_ENABLED = true;
+    // Per-method retry policies, resolved when each test starts; tests of a parallel suite start concurrently
+    private static final AtomicReference<RetryPolicyRegistry> retryPolicies =
+            new AtomicReference<>(RetryPolicyRegistry.empty());
+
+    // Suite-wide retry limits, replaced when a suite starts
+    private static volatile RetryBudget retryBudget = new RetryBudget(
+            RetryProperties.getBudgetRatio(null), RetryProperties.getBudgetMin(null));
+    private static volatile RetryCircuitBreaker circuitBreaker = new RetryCircuitBreaker(
+            RetryProperties.getCircuitBreakerWindowSize(null),
+            RetryProperties.getCircuitBreakerFailureRate(null),
+            RetryProperties.getCircuitBreakerCooldownInSeconds(null) * 1000L);
 
     
     /**
      * Get total number of retries performed across all tests
      */
     public static int getTotalRetries() {
-        return TOTAL_RETRIES.get();
+        return (int) TOTAL_RETRIES.sum();
     }
     
     /**
      * Get total number of failed tests
      */
     public static int getTotalFailedTests() {
-        return TOTAL_FAILED_TESTS.get();
+        return (int) TOTAL_FAILED_TESTS.sum();
     }
     
     /**
      * Get total number of successful retries
      */
     public static int getTotalSuccessfulRetries() {
-        return TOTAL_SUCCESSFUL_RETRIES.get();
+        return (int) TOTAL_SUCCESSFUL_RETRIES.sum();
     }
     
     /**
      * Get retry success rate as percentage
      */
     public static double getRetrySuccessRate() {
-        int totalRetries = TOTAL_RETRIES.get();
+        long totalRetries = TOTAL_RETRIES.sum();
         if (totalRetries == 0) {
             return 0.0;
         }
-        return (double) TOTAL_SUCCESSFUL_RETRIES.get() / totalRetries * 100.0;
+        return (double) TOTAL_SUCCESSFUL_RETRIES.sum() / totalRetries * 100.0;
+    }
+
+    /**
+     * Get per-method and per-class retry telemetry of the current suite
+     */
+    public static RetryTelemetry getTelemetry() {
+        return telemetry;
     }
     
     /**
@@ -82,23 +116,51 @@ public class TestNGRetryListener implements IRetryAnalyzer, IAnnotationTransform
         log.info("Total Retries: {}", getTotalRetries());
         log.info("Total Failed Tests: {}", getTotalFailedTests());
         log.info("Total Successful Retries: {}", getTotalSuccessfulRetries());
-        log.info("Retry Success Rate: {:.2f}%", getRetrySuccessRate());
+        log.info("Retry Budget Used: {}/{}", retryBudget.getUsed(), retryBudget.getAllowed());
+        log.info("Retry Success Rate: {}%", String.format("%.2f", getRetrySuccessRate()));
+        RetryTelemetry current = telemetry;
+        log.info("Time Wasted by Retries: {} ms", current.getTotalWastedMillis());
+        List<RetryTelemetry.Stats> offenders = current.getMethodsByWastedTime();
+        for (RetryTelemetry.Stats offender : offenders.subList(0, Math.min(TOP_OFFENDERS, offenders.size()))) {
+            log.info("  {}", offender);
+        }
         log.info("===============================");
     }
     
+    @Override
+    public void onStart(ISuite suite) {
+        retryBudget = new RetryBudget(
+                RetryProperties.getBudgetRatio(suite.getParameter(RetryProperties.getBudgetRatioKey())),
+                RetryProperties.getBudgetMin(suite.getParameter(RetryProperties.getBudgetMinKey())));
+        circuitBreaker = new RetryCircuitBreaker(
+                RetryProperties.getCircuitBreakerWindowSize(suite.getParameter(RetryProperties.getCircuitBreakerWindowSizeKey())),
+                RetryProperties.getCircuitBreakerFailureRate(suite.getParameter(RetryProperties.getCircuitBreakerFailureRateKey())),
+                RetryProperties.getCircuitBreakerCooldownInSeconds(suite.getParameter(RetryProperties.getCircuitBreakerCooldownKey())) * 1000L);
+        testRetryCount.clear();
+        retryPolicies.set(RetryPolicyRegistry.empty());
+        telemetry = new RetryTelemetry();
+    }
+
     @Override
     public void onStart(final ITestContext context) {
-        final String MAX_RETRIES_DEFINED_IN_SUITE = context.getCurrentXmlTest().getParameter("maxRetriesFromSuite");
-        final String DELAY_BETWEEN_RETRY_IN_SECONDS_IN_SUITE = context.getCurrentXmlTest().getParameter("delayBetweenRetryInSeconds");
-        MAX_RETRIES_FOR_TEST = RetryProperties.getMaxRetries(MAX_RETRIES_DEFINED_IN_SUITE);
-        RETRY_DELAY_IN_SECONDS = RetryProperties.getDelayInSeconds(DELAY_BETWEEN_RETRY_IN_SECONDS_IN_SUITE);
-        log.info(String.format("Max retries user has set to : %s", MAX_RETRIES_FOR_TEST));
-        log.info(String.format("Delay between retries is set to : %s", RETRY_DELAY_IN_SECONDS));
+        // with() has no side effects, so it is safe to run again when another test won the update
+        RetryPolicyRegistry registry = retryPolicies.updateAndGet(
+                current -> current.with(context.getAllTestMethods(), context.getCurrentXmlTest().getAllParameters()));
+        TestRetryPolicy defaultPolicy = registry.getDefaultPolicy();
+        log.info(String.format("Max retries user has set to : %s", defaultPolicy.getMaxRetries()));
+        log.info(String.format("Delay between retries is set to : %s", defaultPolicy.getDelayMillis() / 1000));
     }
 
     @Override
     public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
-        final Retry retry = testMethod.getDeclaringClass().getAnnotation(Retry.class);
+        if (testMethod == null) {
+            return;
+        }
+        // A method-level annotation overrides the class-level one
+        Retry retry = testMethod.getAnnotation(Retry.class);
+        if (retry == null) {
+            retry = testMethod.getDeclaringClass().getAnnotation(Retry.class);
+        }
 
         if (retry != null && !retry.enable()) {
             log.info("user choose to skip retries...");
@@ -111,12 +173,21 @@ public class TestNGRetryListener implements IRetryAnalyzer, IAnnotationTransform
     public boolean retry(ITestResult iTestResult) {
 
         if (!iTestResult.isSuccess()) {
-            int count = retries.getAndIncrement();
-            if (count <= MAX_RETRIES_FOR_TEST) {
-                TOTAL_RETRIES.getAndIncrement();
-                waitBeforeRetry();
+            circuitBreaker.recordOutcome(true);
+            TestRetryPolicy policy = retryPolicies.get().get(iTestResult.getMethod().getConstructorOrMethod().getMethod());
+            int maxRetries = policy.isEnabled() ? policy.getMaxRetries() : 0;
+            AtomicInteger retries = testRetryCount.computeIfAbsent(testKey(iTestResult), key -> new AtomicInteger());
+            if (retries.get() < maxRetries && circuitBreaker.allowsRetry() && retryBudget.tryAcquire()) {
+                retries.incrementAndGet();
+                TOTAL_RETRIES.increment();
+                waitBeforeRetry(iTestResult, policy.getDelayMillis());
                 return true;
             } else {
+                if (retries.get() < maxRetries) {
+                    log.info("Not retrying {}: {}", iTestResult.getMethod().getQualifiedName(),
+                            circuitBreaker.isOpen() ? "circuit breaker is open" : "retry budget is spent");
+                }
+                TOTAL_FAILED_TESTS.increment();
                 iTestResult.setStatus(ITestResult.FAILURE);
             }
         } else {
@@ -125,21 +196,102 @@ public class TestNGRetryListener implements IRetryAnalyzer, IAnnotationTransform
         return false;
     }
 
-    private void waitBeforeRetry() {
+    /**
+     * TestNG re-runs a test on the worker that reported the failure as soon as this analyzer returns,
+     * so the delay is a deadline counted from the end of the failed attempt: time already spent in
+     * TestNG's failure handling and other listeners is not slept again, and nothing waits when the
+     * test is not retried.
+     */
+    private void waitBeforeRetry(ITestResult iTestResult, long delayMillis) {
+        long retryAt = iTestResult.getEndMillis() + delayMillis;
+        long remaining = retryAt - System.currentTimeMillis();
+        if (remaining <= 0) {
+            return;
+        }
+        long sleepStart = System.nanoTime();
         try {
-            Thread.sleep((long) RETRY_DELAY_IN_SECONDS * 1000);
+            Thread.sleep(remaining);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             log.error(e.getMessage());
+        } finally {
+            telemetry.recordRetrySleep(iTestResult.getTestClass().getName(), iTestResult.getMethod().getMethodName(),
+                    (System.nanoTime() - sleepStart) / 1_000_000);
+        }
+    }
+
+    @Override
+    public void onTestStart(ITestResult result) {
+        // Retries taken so far; read before the attempt, as retry() counts the next one before TestNG reports this one
+        AtomicInteger retries = testRetryCount.get(testKey(result));
+        int attempt = retries == null ? 0 : retries.get();
+        result.setAttribute(ATTEMPT_ATTRIBUTE, attempt);
+        // The budget is a share of the tests run, so a retry must not earn more retries
+        if (attempt == 0) {
+            retryBudget.recordExecution();
         }
     }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        circuitBreaker.recordOutcome(false);
+        AtomicInteger retries = testRetryCount.get(testKey(result));
+        if (retries != null && retries.get() > 0) {
+            TOTAL_SUCCESSFUL_RETRIES.increment();
+        }
+        recordAttempt(result, RetryTelemetry.Outcome.PASSED);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        recordAttempt(result, RetryTelemetry.Outcome.FAILED);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        // A failed attempt that is retried is reported as skipped; its outcome comes with the last attempt
+        recordAttempt(result, result.wasRetried() ? null : RetryTelemetry.Outcome.SKIPPED);
+    }
+
+    private static void recordAttempt(ITestResult result, RetryTelemetry.Outcome outcome) {
+        Object attribute = result.getAttribute(ATTEMPT_ATTRIBUTE);
+        int attempt = attribute instanceof Integer ? (Integer) attribute : 0;
+        String className = result.getTestClass().getName();
+        String methodName = result.getMethod().getMethodName();
+        RetryTelemetry current = telemetry;
+        current.recordAttempt(className, methodName, attempt, Math.max(0, result.getEndMillis() - result.getStartMillis()));
+        if (outcome != null) {
+            current.recordOutcome(className, methodName, outcome, attempt > 0);
+        }
+    }
+
+    /**
+     * Identifies one test instance and parameter set, so parallel and data-driven runs of the
+     * same method keep separate retry counts
+     */
+    private static String testKey(ITestResult result) {
+        return result.getMethod().getQualifiedName()
+                + "@" + System.identityHashCode(result.getInstance())
+                + "#" + Arrays.deepHashCode(result.getParameters());
+    }
     
     @Override
     public void onFinish(ITestContext context) {
         log.info("=== TestNG Retry Analyzer Finished ===");
         printRetryStatistics();
-        
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
         // Clear test-specific retry counters for next run
         testRetryCount.clear();
+        Path report = Paths.get(System.getProperty(SYS_REPORT_DIR_KEY, DEFAULT_REPORT_DIR)).resolve("flakiness-report.json");
+        try {
+            telemetry.writeReport(report, suite.getName());
+            log.info("Flakiness report written to {}", report.toAbsolutePath());
+        } catch (IOException e) {
+            log.error("Failed to write flakiness report: {}", e.getMessage());
+        }
     }
 
 }
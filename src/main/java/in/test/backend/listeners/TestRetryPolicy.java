@@ -0,0 +1,31 @@
+package in.test.backend.listeners;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Resolved retry settings for one test method
+ * <p>
+ * Built once per suite by {@link RetryPolicyRegistry}, so the retry analyzer reads plain fields
+ * instead of parsing properties or annotations on every failure.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class TestRetryPolicy {
+
+    private final boolean enabled;
+    private final int maxRetries;
+    private final long delayMillis;
+
+    /**
+     * Where the settings came from, for logging
+     */
+    private final String source;
+
+    @Override
+    public String toString() {
+        return enabled
+                ? String.format("%d retries, %d ms delay (%s)", maxRetries, delayMillis, source)
+                : String.format("disabled (%s)", source);
+    }
+}
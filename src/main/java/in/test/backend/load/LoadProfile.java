@@ -0,0 +1,68 @@
+package in.test.backend.load;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Describes how a {@link LoadRunner} drives a flow.
+ * <p>
+ * {@link Model#CLOSED}: {@code users} virtual users run the flow back to back, so throughput
+ * follows the system's latency. {@link Model#OPEN}: flows start at a constant
+ * {@code ratePerSecond} no matter how slow the system is, and latency is measured from each
+ * flow's scheduled start to correct for coordinated omission.
+ */
+@Getter
+@Builder
+public class LoadProfile {
+
+    public enum Model {
+        CLOSED,
+        OPEN
+    }
+
+    @Builder.Default
+    private final Model model = Model.CLOSED;
+
+    /**
+     * Concurrent users for the closed model
+     */
+    @Builder.Default
+    private final int users = 10;
+
+    /**
+     * Flow starts per second for the open model
+     */
+    @Builder.Default
+    private final double ratePerSecond = 10;
+
+    /**
+     * Worker threads available to the open model; scheduled flows queue when all are busy
+     */
+    @Builder.Default
+    private final int maxConcurrency = 200;
+
+    @Builder.Default
+    private final Duration duration = Duration.ofSeconds(60);
+
+    /**
+     * Time the flow runs before latencies are recorded
+     */
+    @Builder.Default
+    private final Duration warmUp = Duration.ZERO;
+
+    public static LoadProfile closed(int users, Duration duration) {
+        return LoadProfile.builder().model(Model.CLOSED).users(users).duration(duration).build();
+    }
+
+    public static LoadProfile open(double ratePerSecond, Duration duration) {
+        return LoadProfile.builder().model(Model.OPEN).ratePerSecond(ratePerSecond).duration(duration).build();
+    }
+
+    @Override
+    public String toString() {
+        String shape = model == Model.CLOSED ? users + " users" : ratePerSecond + "/s";
+        return model.name().toLowerCase() + ", " + shape + ", " + duration.toSeconds() + "s";
+    }
+}
@@ -0,0 +1,77 @@
+package in.test.backend.load;
+
+import in.test.backend.utils.LatencyHistogram;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and counters collected by one {@link LoadRunner} run.
+ */
+@Slf4j
+@Getter
+public class LoadReport {
+
+    public enum Stage {
+        INIT,
+        PROCESS,
+        VALIDATE,
+        TRANSFORM
+    }
+
+    private final String flowName;
+    private final LoadProfile profile;
+    private final Map<Stage, LatencyHistogram> stages = new EnumMap<>(Stage.class);
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LatencyHistogram responseTime = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private long measuredNanos;
+
+    LoadReport(String flowName, LoadProfile profile) {
+        this.flowName = flowName;
+        this.profile = profile;
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, new LatencyHistogram());
+        }
+    }
+
+    void setMeasuredNanos(long measuredNanos) {
+        this.measuredNanos = measuredNanos;
+    }
+
+    /**
+     * Completed flows per second over the measured window, failures included
+     */
+    public double getThroughput() {
+        return measuredNanos == 0 ? 0.0 : serviceTime.getCount() / (measuredNanos / 1_000_000_000.0);
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Print latency percentiles and throughput summary
+     */
+    public void print() {
+        log.info("=== Load Run: {} ({}) ===", flowName, profile);
+        log.info(String.format("%-16s %9s %9s %9s %9s %9s %9s", "stage (ms)", "count", "p50", "p90", "p99", "p99.9", "max"));
+        stages.forEach((stage, histogram) -> log.info(row(stage.name().toLowerCase(), histogram)));
+        log.info(row("end-to-end", serviceTime));
+        if (profile.getModel() == LoadProfile.Model.OPEN) {
+            log.info(row("corrected", responseTime));
+        }
+        log.info(String.format("Throughput: %.2f flows/s, failures: %d", getThroughput(), getFailureCount()));
+        log.info("===============================");
+    }
+
+    private static String row(String name, LatencyHistogram histogram) {
+        return String.format("%-16s %9d %9.2f %9.2f %9.2f %9.2f %9.2f", name, histogram.getCount(),
+                histogram.getValueAtPercentileMillis(50), histogram.getValueAtPercentileMillis(90),
+                histogram.getValueAtPercentileMillis(99), histogram.getValueAtPercentileMillis(99.9),
+                histogram.getMaxNanos() / 1_000_000.0);
+    }
+}
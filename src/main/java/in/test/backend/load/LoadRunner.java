@@ -0,0 +1,143 @@
+package in.test.backend.load;
+
+import in.test.backend.common.ServiceHelper;
+import in.test.backend.load.LoadReport.Stage;
+import in.test.backend.utils.Threads;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Runs a {@link ServiceHelper} flow ({@code init().process().validate().transform()}) as a load test.
+ * <p>
+ * Helpers keep per-call state, so every worker thread gets its own instance from the supplier:
+ * <pre>
+ * LoadReport report = new LoadRunner(
+ *         () -> new MerchantConfigAttributesServiceHelper(ServiceURIs.URL.getService()).withRequest(request),
+ *         LoadProfile.open(200, Duration.ofMinutes(1)))
+ *         .run();
+ * </pre>
+ * Failed flows (exceptions or assertion errors) are counted and still recorded in the end-to-end latency.
+ */
+@Slf4j
+public class LoadRunner {
+
+    private final Supplier<? extends ServiceHelper> helperFactory;
+    private final LoadProfile profile;
+
+    public LoadRunner(Supplier<? extends ServiceHelper> helperFactory, LoadProfile profile) {
+        this.helperFactory = helperFactory;
+        this.profile = profile;
+    }
+
+    /**
+     * Runs the load profile, blocks until every started flow has finished and prints the summary.
+     * @return collected latencies and counters
+     */
+    public LoadReport run() {
+        ThreadLocal<ServiceHelper> helpers = ThreadLocal.withInitial(helperFactory);
+        LoadReport report = new LoadReport(helpers.get().getClass().getSimpleName(), profile);
+
+        long start = System.nanoTime();
+        long recordFrom = start + profile.getWarmUp().toNanos();
+        long endAt = recordFrom + profile.getDuration().toNanos();
+        log.info("Starting load run ({}) with {} warm-up", profile, profile.getWarmUp());
+
+        if (profile.getModel() == LoadProfile.Model.OPEN) {
+            runOpen(helpers, report, start, recordFrom, endAt);
+        } else {
+            runClosed(helpers, report, recordFrom, endAt);
+        }
+
+        report.setMeasuredNanos(System.nanoTime() - recordFrom);
+        report.print();
+        return report;
+    }
+
+    private void runClosed(ThreadLocal<ServiceHelper> helpers, LoadReport report, long recordFrom, long endAt) {
+        ExecutorService users = Executors.newFixedThreadPool(profile.getUsers(), Threads.daemonFactory("load-user-"));
+        for (int i = 0; i < profile.getUsers(); i++) {
+            users.execute(() -> {
+                ServiceHelper helper = helpers.get();
+                long now;
+                while ((now = System.nanoTime()) < endAt) {
+                    runFlow(helper, report, now, now >= recordFrom);
+                }
+            });
+        }
+        awaitCompletion(users);
+    }
+
+    private void runOpen(ThreadLocal<ServiceHelper> helpers, LoadReport report, long start, long recordFrom, long endAt) {
+        ExecutorService workers = Executors.newFixedThreadPool(profile.getMaxConcurrency(), Threads.daemonFactory("load-worker-"));
+        double intervalNanos = 1_000_000_000.0 / profile.getRatePerSecond();
+        long scheduled = 0;
+        long intendedStart = start;
+        while (intendedStart < endAt) {
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long flowStart = intendedStart;
+            workers.execute(() -> runFlow(helpers.get(), report, flowStart, flowStart >= recordFrom));
+            intendedStart = start + (long) (++scheduled * intervalNanos);
+        }
+        awaitCompletion(workers);
+    }
+
+    /**
+     * @param intendedStart when the flow was scheduled to start; equal to the actual start in the closed model
+     */
+    private void runFlow(ServiceHelper helper, LoadReport report, long intendedStart, boolean record) {
+        long actualStart = System.nanoTime();
+        long stageStart = actualStart;
+        Stage stage = Stage.INIT;
+        try {
+            ServiceHelper current = helper.init();
+            stageStart = recordStage(report, stage, stageStart, record);
+            stage = Stage.PROCESS;
+            current = current.process();
+            stageStart = recordStage(report, stage, stageStart, record);
+            stage = Stage.VALIDATE;
+            current = current.validate();
+            stageStart = recordStage(report, stage, stageStart, record);
+            stage = Stage.TRANSFORM;
+            current.transform();
+            recordStage(report, stage, stageStart, record);
+        } catch (Exception | AssertionError e) {
+            if (record) {
+                report.getFailures().increment();
+            }
+            log.debug("Flow failed in {} stage: {}", stage, e.getMessage());
+        }
+        if (record) {
+            long end = System.nanoTime();
+            report.getServiceTime().record(end - actualStart);
+            report.getResponseTime().record(end - intendedStart);
+        }
+    }
+
+    private static long recordStage(LoadReport report, Stage stage, long stageStart, boolean record) {
+        long now = System.nanoTime();
+        if (record) {
+            report.getStages().get(stage).record(now - stageStart);
+        }
+        return now;
+    }
+
+    private static void awaitCompletion(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for in-flight flows to finish");
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
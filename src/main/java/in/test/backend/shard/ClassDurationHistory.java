@@ -0,0 +1,128 @@
+package in.test.backend.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+
+/**
+ * Per-class test durations from earlier runs, used to balance shards
+ * <p>
+ * Each class keeps an exponentially weighted mean, so one slow run moves the estimate half way
+ * instead of replacing it. The file is plain JSON sorted by class name, so it can be committed or
+ * cached between CI runs and diffs stay readable.
+ */
+@Slf4j
+public final class ClassDurationHistory {
+
+    private static final double SMOOTHING = 0.5;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<String, Entry> classes = new TreeMap<>();
+
+    /**
+     * @return the history in the file, or an empty one when the file is missing or unreadable
+     */
+    public static ClassDurationHistory load(Path file) {
+        ClassDurationHistory history = new ClassDurationHistory();
+        if (!Files.isRegularFile(file)) {
+            log.info("No class duration history at {}, shards are balanced by class count", file);
+            return history;
+        }
+        try {
+            JsonNode root = OBJECT_MAPPER.readTree(file.toFile());
+            Iterator<Map.Entry<String, JsonNode>> fields = root.path("classes").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                history.classes.put(field.getKey(), new Entry(
+                        field.getValue().path("meanMillis").asLong(), field.getValue().path("runs").asInt(1)));
+            }
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable class duration history {}: {}", file, e.getMessage());
+            history.classes.clear();
+        }
+        return history;
+    }
+
+    /**
+     * @return the expected duration of the class, empty when it has not run before
+     */
+    public OptionalLong durationMillis(String className) {
+        Entry entry = classes.get(className);
+        return entry == null ? OptionalLong.empty() : OptionalLong.of(entry.meanMillis);
+    }
+
+    /**
+     * @return median of the known durations, used for classes without history; 1 when nothing is known
+     */
+    public long medianMillis() {
+        if (classes.isEmpty()) {
+            return 1;
+        }
+        List<Long> durations = new ArrayList<>(classes.size());
+        classes.values().forEach(entry -> durations.add(entry.meanMillis));
+        Collections.sort(durations);
+        return Math.max(1, durations.get(durations.size() / 2));
+    }
+
+    /**
+     * Folds the duration of one run into the class estimate
+     */
+    public void record(String className, long durationMillis) {
+        Entry entry = classes.get(className);
+        if (entry == null) {
+            classes.put(className, new Entry(durationMillis, 1));
+        } else {
+            long mean = Math.round(SMOOTHING * durationMillis + (1 - SMOOTHING) * entry.meanMillis);
+            classes.put(className, new Entry(mean, entry.runs + 1));
+        }
+    }
+
+    public int size() {
+        return classes.size();
+    }
+
+    /**
+     * Writes the history through a temporary file, so a reader never sees a partial file
+     */
+    public void save(Path file) throws IOException {
+        ObjectNode root = OBJECT_MAPPER.createObjectNode();
+        ObjectNode classesNode = root.putObject("classes");
+        classes.forEach((className, entry) -> classesNode.putObject(className)
+                .put("meanMillis", entry.meanMillis)
+                .put("runs", entry.runs));
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            OBJECT_MAPPER.writeValue(temp.toFile(), root);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long meanMillis;
+        private final int runs;
+
+        private Entry(long meanMillis, int runs) {
+            this.meanMillis = meanMillis;
+            this.runs = runs;
+        }
+    }
+}
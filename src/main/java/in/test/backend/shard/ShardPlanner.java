@@ -0,0 +1,89 @@
+package in.test.backend.shard;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Splits test classes across shards, longest expected duration first
+ * <p>
+ * Classes are sorted by their history duration (longest first, then by name) and each goes to the
+ * shard with the least expected time so far, lowest index on ties. Every JVM computes the same plan
+ * from the same class list and history, so shards need no coordination. Classes without history are
+ * counted at the median known duration, so new classes spread out instead of piling onto one shard.
+ */
+public final class ShardPlanner {
+
+    private ShardPlanner() {
+    }
+
+    /**
+     * @return one shard per index, each with its classes in name order
+     */
+    public static List<Shard> plan(Collection<String> classNames, ClassDurationHistory history, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, was " + shardCount);
+        }
+        long unknownMillis = history.medianMillis();
+        List<String> ordered = new ArrayList<>(new TreeSet<>(classNames));
+        List<Long> estimates = new ArrayList<>(ordered.size());
+        ordered.forEach(className -> estimates.add(history.durationMillis(className).orElse(unknownMillis)));
+
+        List<Integer> byDuration = new ArrayList<>(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            byDuration.add(i);
+        }
+        // Names are already sorted, so comparing indexes breaks ties by name
+        byDuration.sort(Comparator.<Integer>comparingLong(estimates::get).reversed().thenComparing(Comparator.naturalOrder()));
+
+        List<Shard> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new Shard(i));
+        }
+        PriorityQueue<Shard> leastLoaded = new PriorityQueue<>(
+                Comparator.comparingLong(Shard::getEstimatedMillis).thenComparingInt(Shard::getIndex));
+        leastLoaded.addAll(shards);
+        for (int item : byDuration) {
+            Shard shard = leastLoaded.poll();
+            shard.add(ordered.get(item), estimates.get(item));
+            leastLoaded.add(shard);
+        }
+        shards.forEach(shard -> Collections.sort(shard.classNames));
+        return shards;
+    }
+
+    /**
+     * Classes assigned to one shard and their expected total duration
+     */
+    @Getter
+    public static final class Shard {
+
+        private final int index;
+        private final List<String> classNames = new ArrayList<>();
+        private long estimatedMillis;
+
+        private Shard(int index) {
+            this.index = index;
+        }
+
+        private void add(String className, long millis) {
+            classNames.add(className);
+            estimatedMillis += millis;
+        }
+
+        public List<String> getClassNames() {
+            return Collections.unmodifiableList(classNames);
+        }
+
+        @Override
+        public String toString() {
+            return "shard " + index + ": " + classNames.size() + " classes, ~" + estimatedMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package in.test.backend.shard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Combines the results of a sharded run into one report
+ * <p>
+ * Reads {@code shard-<I>/shard-summary.json} and, when present, the shard's {@code testng-results.xml}
+ * (directly in the shard directory or under {@code surefire-reports/}) from every shard directory. It
+ * writes {@code shard-report.json} with the summed counts and retry statistics, a merged
+ * {@code testng-results.xml}, and folds the measured class durations into the history file so the next
+ * plan uses them. Exits with 1 when a shard is missing or a test failed.
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=in.test.backend.shard.ShardReportMerger [-Dexec.args="target/shards"]
+ * </pre>
+ */
+@Slf4j
+public class ShardReportMerger {
+
+    public static final String SUMMARY_FILE = "shard-summary.json";
+
+    // System property keys, shared with ShardListener
+    private static final String SYS_HISTORY_FILE_KEY = "shard.history.file";
+    private static final String SYS_OUTPUT_DIR_KEY = "shard.output.dir";
+
+    // Default values
+    private static final String DEFAULT_HISTORY_FILE = "test-history/class-durations.json";
+    private static final String DEFAULT_OUTPUT_DIR = "target/shards";
+
+    private static final String RESULTS_FILE = "testng-results.xml";
+    private static final String[] RESULT_COUNTS = {"ignored", "total", "passed", "failed", "skipped"};
+    private static final Pattern SHARD_DIR = Pattern.compile("shard-(\\d+)");
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path shardsDir;
+    private final Path historyFile;
+
+    public ShardReportMerger(Path shardsDir, Path historyFile) {
+        this.shardsDir = shardsDir;
+        this.historyFile = historyFile;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path shardsDir = Paths.get(args.length > 0 ? args[0] : System.getProperty(SYS_OUTPUT_DIR_KEY, DEFAULT_OUTPUT_DIR));
+        Path historyFile = Paths.get(args.length > 1 ? args[1] : System.getProperty(SYS_HISTORY_FILE_KEY, DEFAULT_HISTORY_FILE));
+        MergedReport report = new ShardReportMerger(shardsDir, historyFile).merge();
+        System.exit(report.isSuccessful() ? 0 : 1);
+    }
+
+    /**
+     * Merges every shard found under the shards directory
+     */
+    public MergedReport merge() throws IOException {
+        Map<Integer, Path> shardDirs = findShardDirs();
+        MergedReport report = new MergedReport();
+        ClassDurationHistory history = ClassDurationHistory.load(historyFile);
+        List<Path> resultFiles = new ArrayList<>();
+        int shardCount = 0;
+
+        for (Map.Entry<Integer, Path> shardDir : shardDirs.entrySet()) {
+            Path summaryFile = shardDir.getValue().resolve(SUMMARY_FILE);
+            if (!Files.isRegularFile(summaryFile)) {
+                log.warn("Shard {} has no {}", shardDir.getKey(), SUMMARY_FILE);
+                continue;
+            }
+            JsonNode summary = OBJECT_MAPPER.readTree(summaryFile.toFile());
+            shardCount = Math.max(shardCount, summary.path("shardCount").asInt());
+            report.add(shardDir.getKey(), summary);
+            Iterator<Map.Entry<String, JsonNode>> classes = summary.path("classMillis").fields();
+            while (classes.hasNext()) {
+                Map.Entry<String, JsonNode> entry = classes.next();
+                history.record(entry.getKey(), entry.getValue().asLong());
+            }
+            findResultsFile(shardDir.getValue()).ifPresent(resultFiles::add);
+        }
+        for (int i = 0; i < shardCount; i++) {
+            if (!report.shards.containsKey(i)) {
+                report.missingShards.add(i);
+            }
+        }
+
+        Files.createDirectories(shardsDir);
+        OBJECT_MAPPER.writeValue(shardsDir.resolve("shard-report.json").toFile(), report.toJson());
+        if (!resultFiles.isEmpty()) {
+            mergeResults(resultFiles, shardsDir.resolve(RESULTS_FILE));
+        }
+        if (report.missingShards.isEmpty()) {
+            history.save(historyFile);
+        } else {
+            log.warn("Class duration history not updated: shards {} are missing", report.missingShards);
+        }
+        report.print();
+        return report;
+    }
+
+    private Map<Integer, Path> findShardDirs() throws IOException {
+        Map<Integer, Path> shardDirs = new TreeMap<>();
+        if (!Files.isDirectory(shardsDir)) {
+            return shardDirs;
+        }
+        try (Stream<Path> children = Files.list(shardsDir)) {
+            children.filter(Files::isDirectory).forEach(dir -> {
+                Matcher matcher = SHARD_DIR.matcher(dir.getFileName().toString());
+                if (matcher.matches()) {
+                    shardDirs.put(Integer.parseInt(matcher.group(1)), dir);
+                }
+            });
+        }
+        return shardDirs;
+    }
+
+    private static Optional<Path> findResultsFile(Path shardDir) {
+        for (Path candidate : new Path[]{shardDir.resolve(RESULTS_FILE), shardDir.resolve("surefire-reports").resolve(RESULTS_FILE)}) {
+            if (Files.isRegularFile(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Sums the counts on the root elements and keeps every suite, in shard order
+     */
+    private static void mergeResults(List<Path> resultFiles, Path target) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document merged = builder.newDocument();
+            Element root = merged.createElement("testng-results");
+            Element reporterOutput = merged.createElement("reporter-output");
+            merged.appendChild(root);
+            root.appendChild(reporterOutput);
+            long[] counts = new long[RESULT_COUNTS.length];
+
+            for (Path file : resultFiles) {
+                Element shardRoot = builder.parse(file.toFile()).getDocumentElement();
+                for (int i = 0; i < RESULT_COUNTS.length; i++) {
+                    String value = shardRoot.getAttribute(RESULT_COUNTS[i]);
+                    counts[i] += value.isEmpty() ? 0 : Long.parseLong(value);
+                }
+                NodeList children = shardRoot.getChildNodes();
+                for (int i = 0; i < children.getLength(); i++) {
+                    Node child = children.item(i);
+                    if ("suite".equals(child.getNodeName())) {
+                        root.appendChild(merged.importNode(child, true));
+                    } else if ("reporter-output".equals(child.getNodeName())) {
+                        NodeList lines = child.getChildNodes();
+                        for (int j = 0; j < lines.getLength(); j++) {
+                            reporterOutput.appendChild(merged.importNode(lines.item(j), true));
+                        }
+                    }
+                }
+            }
+            for (int i = 0; i < RESULT_COUNTS.length; i++) {
+                root.setAttribute(RESULT_COUNTS[i], String.valueOf(counts[i]));
+            }
+
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.transform(new DOMSource(merged), new StreamResult(target.toFile()));
+            log.info("Merged {} TestNG result files into {}", resultFiles.size(), target.toAbsolutePath());
+        } catch (ParserConfigurationException | SAXException | TransformerException e) {
+            throw new IOException("Failed to merge TestNG results: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Totals across shards
+     */
+    @Getter
+    public static final class MergedReport {
+
+        private final Map<Integer, JsonNode> shards = new TreeMap<>();
+        private final TreeSet<Integer> missingShards = new TreeSet<>();
+        private long passed;
+        private long failed;
+        private long skipped;
+        private long totalRetries;
+        private long totalFailedTests;
+        private long totalSuccessfulRetries;
+        private long maxWallMillis;
+        private long totalWallMillis;
+
+        private void add(int index, JsonNode summary) {
+            shards.put(index, summary);
+            passed += summary.path("passed").asLong();
+            failed += summary.path("failed").asLong();
+            skipped += summary.path("skipped").asLong();
+            JsonNode retries = summary.path("retries");
+            totalRetries += retries.path("totalRetries").asLong();
+            totalFailedTests += retries.path("totalFailedTests").asLong();
+            totalSuccessfulRetries += retries.path("totalSuccessfulRetries").asLong();
+            long wallMillis = summary.path("wallMillis").asLong();
+            maxWallMillis = Math.max(maxWallMillis, wallMillis);
+            totalWallMillis += wallMillis;
+        }
+
+        public boolean isSuccessful() {
+            return missingShards.isEmpty() && failed == 0 && !shards.isEmpty();
+        }
+
+        /**
+         * Slowest shard over the mean shard wall time; 1.0 is a perfect split
+         */
+        public double getImbalance() {
+            return totalWallMillis == 0 ? 1.0 : maxWallMillis / ((double) totalWallMillis / shards.size());
+        }
+
+        public double getRetrySuccessRate() {
+            return totalRetries == 0 ? 0.0 : (double) totalSuccessfulRetries / totalRetries * 100.0;
+        }
+
+        private Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("shards", shards.size());
+            json.put("missingShards", missingShards);
+            json.put("passed", passed);
+            json.put("failed", failed);
+            json.put("skipped", skipped);
+            Map<String, Object> retries = new LinkedHashMap<>();
+            retries.put("totalRetries", totalRetries);
+            retries.put("totalFailedTests", totalFailedTests);
+            retries.put("totalSuccessfulRetries", totalSuccessfulRetries);
+            retries.put("retrySuccessRate", getRetrySuccessRate());
+            json.put("retries", retries);
+            json.put("maxWallMillis", maxWallMillis);
+            json.put("imbalance", getImbalance());
+            Map<String, Object> perShard = new LinkedHashMap<>();
+            shards.forEach((index, summary) -> {
+                Map<String, Object> shard = new LinkedHashMap<>();
+                shard.put("wallMillis", summary.path("wallMillis").asLong());
+                shard.put("estimatedMillis", summary.path("estimatedMillis").asLong());
+                shard.put("classes", summary.path("plannedClasses").size());
+                shard.put("failed", summary.path("failed").asLong());
+                perShard.put(String.valueOf(index), shard);
+            });
+            json.put("perShard", perShard);
+            return json;
+        }
+
+        private void print() {
+            log.info("=== Sharded Run: {} shards ===", shards.size());
+            shards.forEach((index, summary) -> log.info("Shard {}: {} classes, {} ms (planned ~{} ms), {} failed",
+                    index, summary.path("plannedClasses").size(), summary.path("wallMillis").asLong(),
+                    summary.path("estimatedMillis").asLong(), summary.path("failed").asLong()));
+            if (!missingShards.isEmpty()) {
+                log.error("Missing shards: {}", missingShards);
+            }
+            log.info("Passed: {}, Failed: {}, Skipped: {}", passed, failed, skipped);
+            log.info("Retries: {}, Successful Retries: {}, Retry Success Rate: {}%",
+                    totalRetries, totalSuccessfulRetries, String.format("%.2f", getRetrySuccessRate()));
+            log.info("Wall time: {} ms, imbalance {}", maxWallMillis, String.format("%.2f", getImbalance()));
+            log.info("===============================");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package in.test.backend.stub;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Response delay of a stub route
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0L;
+
+    /**
+     * @return delay in nanoseconds for one response
+     */
+    long sampleNanos(Random random);
+
+    static LatencyDistribution fixed(Duration delay) {
+        long nanos = delay.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long range = max.toNanos() - minNanos;
+        if (range < 0) {
+            throw new IllegalArgumentException("Uniform latency max must not be below min");
+        }
+        return random -> minNanos + (range == 0 ? 0 : (long) (random.nextDouble() * range));
+    }
+
+    /**
+     * Log-normal delay, the usual shape of real service latency: most responses near the median
+     * with a long right tail. A sigma of 0.5 gives a p99 of about 3.2 times the median.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    /**
+     * Parses {@code fixed:50ms}, {@code uniform:10ms-100ms}, {@code lognormal:50ms,0.5} or {@code none}.
+     * Durations are milliseconds unless suffixed with {@code ms}, {@code s} or {@code us}.
+     */
+    static LatencyDistribution parse(String spec) {
+        String value = spec.trim().toLowerCase(Locale.ROOT);
+        if (value.isEmpty() || value.equals("none")) {
+            return NONE;
+        }
+        int separator = value.indexOf(':');
+        String type = separator < 0 ? "fixed" : value.substring(0, separator).trim();
+        String arguments = value.substring(separator + 1).trim();
+        switch (type) {
+            case "fixed":
+                return fixed(parseDuration(arguments));
+            case "uniform": {
+                String[] bounds = arguments.split("-");
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("Expected uniform:<min>-<max>, got: " + spec);
+                }
+                return uniform(parseDuration(bounds[0]), parseDuration(bounds[1]));
+            }
+            case "lognormal": {
+                String[] parameters = arguments.split(",");
+                if (parameters.length != 2) {
+                    throw new IllegalArgumentException("Expected lognormal:<median>,<sigma>, got: " + spec);
+                }
+                return logNormal(parseDuration(parameters[0]), Double.parseDouble(parameters[1].trim()));
+            }
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + spec);
+        }
+    }
+
+    private static Duration parseDuration(String text) {
+        String value = text.trim();
+        if (value.endsWith("us")) {
+            return Duration.ofNanos(Long.parseLong(value.substring(0, value.length() - 2).trim()) * 1_000L);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1).trim()));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
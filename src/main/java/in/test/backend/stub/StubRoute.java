@@ -0,0 +1,84 @@
+package in.test.backend.stub;
+
+import in.test.backend.common.ServiceEndpoints;
+import in.test.backend.utils.ConfigManager;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Behaviour of one stub endpoint
+ * <p>
+ * The body is a template: {@code {{request.<field>}}} is replaced with the JSON value of a top-level
+ * field of the request body ({@code null} when absent), {@code {{uuid}}} with a random UUID and
+ * {@code {{now}}} with the current epoch milliseconds.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class StubRoute {
+
+    private static final String KEY_PREFIX = "stub.";
+    private static final String DEFAULTS = "default";
+
+    @Builder.Default
+    private final int status = 200;
+    @Builder.Default
+    private final String body = "{}";
+    @Builder.Default
+    private final String contentType = "application/json";
+    @Builder.Default
+    private final LatencyDistribution latency = LatencyDistribution.NONE;
+    // Fraction of requests answered with errorStatus instead of the canned response
+    @Builder.Default
+    private final double errorRate = 0.0;
+    @Builder.Default
+    private final int errorStatus = 503;
+    @Builder.Default
+    private final String errorBody = "{\"error\":\"injected failure\"}";
+    // Fraction of requests whose connection is closed without any response
+    @Builder.Default
+    private final double resetRate = 0.0;
+
+    /**
+     * Reads {@code stub.<ENDPOINT>.<setting>}, falling back to {@code stub.default.<setting>}.
+     * The body comes from {@code stub.<ENDPOINT>.body}, else the classpath resource {@code stubs/<ENDPOINT>.json},
+     * else {@code stub.default.body}.
+     */
+    public static StubRoute fromConfig(ServiceEndpoints endpoint) {
+        StubRoute defaults = StubRoute.builder().build();
+        String name = endpoint.name();
+        String body = ConfigManager.get(KEY_PREFIX + name + ".body");
+        if (body == null || body.trim().isEmpty()) {
+            body = readResource("stubs/" + name + ".json", setting(DEFAULTS, "body", defaults.getBody()));
+        }
+        return StubRoute.builder()
+                .status(Integer.parseInt(setting(name, "status", String.valueOf(defaults.getStatus()))))
+                .body(body)
+                .contentType(setting(name, "contentType", defaults.getContentType()))
+                .latency(LatencyDistribution.parse(setting(name, "latency", "none")))
+                .errorRate(Double.parseDouble(setting(name, "errorRate", String.valueOf(defaults.getErrorRate()))))
+                .errorStatus(Integer.parseInt(setting(name, "errorStatus", String.valueOf(defaults.getErrorStatus()))))
+                .errorBody(setting(name, "errorBody", defaults.getErrorBody()))
+                .resetRate(Double.parseDouble(setting(name, "resetRate", String.valueOf(defaults.getResetRate()))))
+                .build();
+    }
+
+    private static String setting(String endpoint, String setting, String defaultValue) {
+        String value = ConfigManager.get(KEY_PREFIX + endpoint + "." + setting);
+        if (value == null || value.trim().isEmpty()) {
+            value = ConfigManager.get(KEY_PREFIX + DEFAULTS + "." + setting, defaultValue);
+        }
+        return value == null ? null : value.trim();
+    }
+
+    private static String readResource(String resource, String defaultValue) {
+        try (InputStream in = StubRoute.class.getClassLoader().getResourceAsStream(resource)) {
+            return in == null ? defaultValue : new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read stub body: " + resource, e);
+        }
+    }
+}
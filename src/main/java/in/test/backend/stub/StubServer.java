@@ -0,0 +1,294 @@
+package in.test.backend.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import in.test.backend.common.ServiceEndpoints;
+import in.test.backend.utils.ConfigManager;
+import in.test.backend.utils.RequestDataFactory;
+import in.test.backend.utils.Threads;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process HTTP stub serving every {@link ServiceEndpoints} entry
+ * <p>
+ * Built on the JDK HTTP server, with a virtual thread per exchange on Java 21+ so injected latency
+ * costs no platform threads. Each endpoint answers any method with its {@link StubRoute}: a templated
+ * body after a delay drawn from its latency distribution, an injected error status, or a connection
+ * closed without a response. Routes can be replaced while the server runs.
+ * <p>
+ * With {@code environment=stub} a shared instance is started on first use and
+ * {@link in.test.backend.base.ServiceURIs#URL} points at it.
+ */
+@Slf4j
+public class StubServer implements Closeable {
+
+    public static final String STUB_ENVIRONMENT = "stub";
+
+    // Configuration keys
+    private static final String ENVIRONMENT_KEY = "environment";
+    private static final String PORT_KEY = "stub.port";
+    private static final String SEED_KEY = "stub.seed";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{\\s*([\\w.-]+)\\s*}}");
+    private static final String REQUEST_PREFIX = "request.";
+
+    private static volatile StubServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<ServiceEndpoints, StubRoute> routes = new ConcurrentHashMap<>();
+    // Also numbers the requests of an endpoint for seeded runs
+    private final Map<ServiceEndpoints, AtomicLong> requestCounts = new EnumMap<>(ServiceEndpoints.class);
+    private final Long seed;
+
+    private StubServer(int port, Map<ServiceEndpoints, StubRoute> initialRoutes, Long seed) throws IOException {
+        this.seed = seed;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = createExecutor();
+        server.setExecutor(executor);
+        for (ServiceEndpoints endpoint : ServiceEndpoints.values()) {
+            routes.put(endpoint, initialRoutes.getOrDefault(endpoint, StubRoute.builder().build()));
+            requestCounts.put(endpoint, new AtomicLong());
+            server.createContext(contextPath(endpoint), exchange -> handle(endpoint, exchange));
+        }
+        server.start();
+        log.info("Stub server listening on {}", getBaseUrl());
+    }
+
+    /**
+     * Starts a stub with routes from {@code stub.*} configuration
+     * @param port port to bind on the loopback address, 0 for any free port
+     */
+    public static StubServer start(int port) {
+        Map<ServiceEndpoints, StubRoute> routes = new EnumMap<>(ServiceEndpoints.class);
+        for (ServiceEndpoints endpoint : ServiceEndpoints.values()) {
+            routes.put(endpoint, StubRoute.fromConfig(endpoint));
+        }
+        return start(port, routes);
+    }
+
+    /**
+     * Starts a stub with the given routes; endpoints without one answer 200 with an empty JSON object
+     */
+    public static StubServer start(int port, Map<ServiceEndpoints, StubRoute> routes) {
+        String seed = ConfigManager.get(SEED_KEY);
+        try {
+            return new StubServer(port, routes, seed == null || seed.trim().isEmpty() ? null : Long.valueOf(seed.trim()));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start stub server on port " + port, e);
+        }
+    }
+
+    public static boolean isStubEnvironment() {
+        return STUB_ENVIRONMENT.equalsIgnoreCase(ConfigManager.get(ENVIRONMENT_KEY, "").trim());
+    }
+
+    /**
+     * The stub used by the {@code stub} environment, started on first call on {@code stub.port}
+     * and stopped when the JVM exits
+     */
+    public static StubServer shared() {
+        StubServer instance = shared;
+        if (instance == null) {
+            synchronized (StubServer.class) {
+                instance = shared;
+                if (instance == null) {
+                    instance = startDaemon(ConfigManager.getInt(PORT_KEY, 0));
+                    Runtime.getRuntime().addShutdownHook(new Thread(instance::close, "stub-server-shutdown"));
+                    shared = instance;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * The JDK server's dispatcher thread inherits the daemon flag of the thread that starts it, so
+     * starting from a daemon thread keeps the shared stub from holding the JVM open
+     */
+    private static StubServer startDaemon(int port) {
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread starter = new Thread(() -> {
+            try {
+                result.set(start(port));
+            } catch (RuntimeException e) {
+                result.set(e);
+            }
+        }, "stub-server-start");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while starting stub server", e);
+        }
+        if (result.get() instanceof RuntimeException) {
+            throw (RuntimeException) result.get();
+        }
+        return (StubServer) result.get();
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public StubRoute getRoute(ServiceEndpoints endpoint) {
+        return routes.get(endpoint);
+    }
+
+    public void setRoute(ServiceEndpoints endpoint, StubRoute route) {
+        routes.put(endpoint, route);
+    }
+
+    public long getRequestCount(ServiceEndpoints endpoint) {
+        return requestCounts.get(endpoint).get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(ServiceEndpoints endpoint, HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+            if (!normalize(exchange.getRequestURI().getPath()).equals(contextPath(endpoint))) {
+                send(exchange, 404, "application/json",
+                        ("{\"error\":\"no stub route for " + exchange.getRequestURI().getPath() + "\"}").getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            long sequence = requestCounts.get(endpoint).getAndIncrement();
+            StubRoute route = routes.get(endpoint);
+            Random random = seed != null ? seededRandom(endpoint, sequence) : ThreadLocalRandom.current();
+
+            long delay = route.getLatency().sampleNanos(random);
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            }
+            if (route.getResetRate() > 0 && random.nextDouble() < route.getResetRate()) {
+                // Closing before any response is sent drops the connection
+                return;
+            }
+            if (route.getErrorRate() > 0 && random.nextDouble() < route.getErrorRate()) {
+                send(exchange, route.getErrorStatus(), "application/json", route.getErrorBody().getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            send(exchange, route.getStatus(), route.getContentType(), render(route.getBody(), requestBody));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Stub route {} failed: {}", endpoint, e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * A generator private to the n-th request of an endpoint. Concurrent requests never share one, and
+     * the draws of a request depend only on the seed, the endpoint and its position, not on how
+     * requests to other endpoints interleave with it.
+     */
+    private Random seededRandom(ServiceEndpoints endpoint, long sequence) {
+        return new Random(RequestDataFactory.mix(RequestDataFactory.mix(seed, endpoint.ordinal()), sequence));
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    static byte[] render(String template, byte[] requestBody) {
+        if (template.indexOf("{{") < 0) {
+            return template.getBytes(StandardCharsets.UTF_8);
+        }
+        JsonNode request = null;
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            String replacement;
+            if (name.equals("uuid")) {
+                replacement = UUID.randomUUID().toString();
+            } else if (name.equals("now")) {
+                replacement = String.valueOf(System.currentTimeMillis());
+            } else if (name.startsWith(REQUEST_PREFIX)) {
+                if (request == null) {
+                    request = readTree(requestBody);
+                }
+                JsonNode value = request.get(name.substring(REQUEST_PREFIX.length()));
+                replacement = value == null ? "null" : value.toString();
+            } else {
+                replacement = matcher.group();
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static JsonNode readTree(byte[] body) {
+        if (body.length == 0) {
+            return OBJECT_MAPPER.createObjectNode();
+        }
+        try {
+            return OBJECT_MAPPER.readTree(body);
+        } catch (IOException e) {
+            return OBJECT_MAPPER.createObjectNode();
+        }
+    }
+
+    private static String contextPath(ServiceEndpoints endpoint) {
+        return normalize("/" + endpoint.getUri());
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.replaceAll("/+", "/");
+        return normalized.length() > 1 && normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+    }
+
+    /**
+     * Virtual thread per exchange when the runtime provides it (Java 21+), otherwise cached daemon threads
+     */
+    private static ExecutorService createExecutor() {
+        ExecutorService virtualThreads = Threads.newVirtualThreadPerTaskExecutor();
+        if (virtualThreads != null) {
+            return virtualThreads;
+        }
+        log.debug("Virtual threads not available on this runtime, using a cached pool");
+        return Executors.newCachedThreadPool(Threads.daemonFactory("stub-server-"));
+    }
+}
@@ -1,27 +1,287 @@
 package in.test.backend.utils;
 
+import lombok.extern.slf4j.Slf4j;
+
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Central access to configuration
+ * <p>
+ * Sources are merged once into an immutable {@link ConfigSnapshot}, later sources overriding earlier ones:
+ * <ol>
+ *     <li>{@code config.properties} on the classpath</li>
+ *     <li>{@code config-<environment>.properties} on the classpath, when present</li>
+ *     <li>an external file named by {@code -Dconfig.file} or {@code CONFIG_FILE}</li>
+ *     <li>environment variables, mapped as {@code MYSQL_HOST -> mysql.host}, for keys the files define</li>
+ *     <li>system properties</li>
+ * </ol>
+ * {@code ${key}} placeholders in values are resolved against the merged result, so {@code MYSQL_HOST}
+ * flows into {@code mysql.url}. With {@code -Dconfig.watch=true} (or {@link #watch()}) the external file
+ * is watched and a fresh snapshot is swapped in when it changes.
+ */
+@Slf4j
 public class ConfigManager {
-    private static final Properties properties = new Properties();
 
+    private static final String CLASSPATH_CONFIG = "config.properties";
+    private static final String ENVIRONMENT_KEY = "environment";
+    private static final String CONFIG_FILE_KEY = "config.file";
+    private static final String CONFIG_FILE_ENV = "CONFIG_FILE";
+    private static final String WATCH_KEY = "config.watch";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}:]+)(?::([^}]*))?}");
+    private static final int MAX_INTERPOLATION_DEPTH = 10;
+
+    private static final AtomicReference<ConfigSnapshot> SNAPSHOT = new AtomicReference<>(load());
+    private static volatile Thread watcher;
+
+    static {
+        if (Boolean.parseBoolean(SNAPSHOT.get().get(WATCH_KEY))) {
+            watch();
+        }
+    }
+
+    /**
+     * Configuration is loaded when the class is first used; kept for callers that still instantiate it
+     */
     public ConfigManager() throws IOException {
-        loadPropertyFromClassPath();
     }
 
-    private void loadPropertyFromClassPath() throws IOException {
+    public static String get(String key) {
+        return SNAPSHOT.get().get(key);
+    }
+
+    public static String get(String key, String defaultValue) {
+        return SNAPSHOT.get().get(key, defaultValue);
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        return SNAPSHOT.get().getInt(key, defaultValue);
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        return SNAPSHOT.get().getLong(key, defaultValue);
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return SNAPSHOT.get().getBoolean(key, defaultValue);
+    }
+
+    public static Duration getDuration(String key, Duration defaultValue) {
+        return SNAPSHOT.get().getDuration(key, defaultValue);
+    }
+
+    public static URI getUri(String key, URI defaultValue) {
+        return SNAPSHOT.get().getUri(key, defaultValue);
+    }
 
-        //load resource file from classpath
-        InputStream in = this.getClass().getClassLoader().getResourceAsStream("config.properties");
-        if (in != null) {
-            properties.load(in);
+    /**
+     * Reads an enum constant by name, ignoring case. Mode switches are often typed on the command line,
+     * so an unknown name is logged and the default used instead of failing class initialization.
+     */
+    public static <E extends Enum<E>> E getEnum(String key, E defaultValue) {
+        String value = get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
         }
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid value for {}: '{}', using {}", key, value, defaultValue.name().toLowerCase(Locale.ROOT));
+            return defaultValue;
+        }
+    }
 
+    /**
+     * The current snapshot; hold on to it when several values must come from the same load
+     */
+    public static ConfigSnapshot snapshot() {
+        return SNAPSHOT.get();
     }
-    public static String get(String key) {
-        return properties.getProperty(key);
+
+    /**
+     * Re-reads every source and atomically replaces the current snapshot
+     */
+    public static ConfigSnapshot reload() {
+        ConfigSnapshot snapshot = load();
+        SNAPSHOT.set(snapshot);
+        log.info("Configuration reloaded ({} keys)", snapshot.keys().size());
+        return snapshot;
     }
 
+    /**
+     * Starts a daemon thread reloading the configuration whenever the external config file changes.
+     * Does nothing when no external file is configured or a watcher is already running.
+     */
+    public static synchronized void watch() {
+        if (watcher != null) {
+            return;
+        }
+        Path file = externalFile();
+        if (file == null || file.getParent() == null || !Files.isDirectory(file.getParent())) {
+            log.warn("Config watch requested but no external config file is available");
+            return;
+        }
+        Thread thread = new Thread(() -> watchFile(file), "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        watcher = thread;
+    }
+
+    private static void watchFile(Path file) {
+        Path directory = file.getParent();
+        try (WatchService service = directory.getFileSystem().newWatchService()) {
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path && file.getFileName().equals(context)) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to reload configuration, keeping previous snapshot: {}", e.getMessage());
+                    }
+                }
+                if (!key.reset()) {
+                    log.warn("Config directory {} is no longer accessible, stopping watch", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | ClosedWatchServiceException e) {
+            log.warn("Config watch stopped: {}", e.getMessage());
+        }
+    }
+
+    private static ConfigSnapshot load() {
+        Map<String, String> values = new LinkedHashMap<>();
+        loadClasspath(CLASSPATH_CONFIG, values);
+
+        String environment = lookupOverride(ENVIRONMENT_KEY, values.get(ENVIRONMENT_KEY));
+        if (environment != null && !environment.trim().isEmpty()) {
+            loadClasspath("config-" + environment.trim() + ".properties", values);
+        }
+
+        Path file = externalFile();
+        if (file != null) {
+            loadFile(file, values);
+        }
+
+        // Only keys the files know about are taken from the environment, so PATH and friends stay out
+        Map<String, String> environmentValues = System.getenv();
+        for (String key : values.keySet().toArray(new String[0])) {
+            String value = environmentValues.get(toEnvironmentName(key));
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        System.getProperties().stringPropertyNames()
+                .forEach(key -> values.put(key, System.getProperty(key)));
+
+        Map<String, String> resolved = new LinkedHashMap<>();
+        values.forEach((key, value) -> resolved.put(key, interpolate(key, value, values, 0)));
+        return new ConfigSnapshot(resolved);
+    }
+
+    private static Path externalFile() {
+        String location = System.getProperty(CONFIG_FILE_KEY, System.getenv(CONFIG_FILE_ENV));
+        return location == null || location.trim().isEmpty() ? null : Paths.get(location.trim()).toAbsolutePath();
+    }
+
+    private static String lookupOverride(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(toEnvironmentName(key));
+        }
+        return value == null ? defaultValue : value;
+    }
+
+    static String toEnvironmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replaceAll("[^A-Z0-9]", "_");
+    }
+
+    private static void loadClasspath(String resource, Map<String, String> values) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = ConfigManager.class.getClassLoader();
+        }
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in != null) {
+                merge(load(new InputStreamReader(in, StandardCharsets.UTF_8)), values);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load configuration from classpath: " + resource, e);
+        }
+    }
+
+    private static void loadFile(Path file, Map<String, String> values) {
+        if (!Files.isRegularFile(file)) {
+            log.warn("Config file {} does not exist, skipping", file);
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            merge(load(reader), values);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load configuration from file: " + file, e);
+        }
+    }
+
+    private static Properties load(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        return properties;
+    }
+
+    private static void merge(Properties properties, Map<String, String> values) {
+        properties.stringPropertyNames().forEach(key -> values.put(key, properties.getProperty(key)));
+    }
+
+    private static String interpolate(String key, String value, Map<String, String> values, int depth) {
+        if (value == null || value.indexOf("${") < 0) {
+            return value;
+        }
+        if (depth > MAX_INTERPOLATION_DEPTH) {
+            throw new IllegalStateException("Circular placeholder reference in configuration key: " + key);
+        }
+        Matcher matcher = PLACEHOLDER.matcher(value);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String reference = matcher.group(1).trim();
+            String replacement = values.get(reference);
+            if (replacement == null) {
+                replacement = matcher.group(2) != null ? matcher.group(2) : matcher.group();
+            } else {
+                replacement = interpolate(reference, replacement, values, depth + 1);
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
 }
@@ -0,0 +1,116 @@
+package in.test.backend.utils;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Immutable view of the merged configuration
+ * <p>
+ * Values are plain strings in an unmodifiable map, so reads never take a lock. Typed accessors parse
+ * a value the first time it is asked for and serve the parsed object afterwards.
+ */
+public final class ConfigSnapshot {
+
+    private final Map<String, String> values;
+    private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+
+    ConfigSnapshot(Map<String, String> values) {
+        this.values = Map.copyOf(values);
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public String get(String key, String defaultValue) {
+        String value = values.get(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value;
+    }
+
+    public boolean contains(String key) {
+        return values.containsKey(key);
+    }
+
+    public Set<String> keys() {
+        return values.keySet();
+    }
+
+    public int getInt(String key, int defaultValue) {
+        Integer value = getParsed(key, "int", text -> Integer.valueOf(text.trim()));
+        return value == null ? defaultValue : value;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        Long value = getParsed(key, "long", text -> Long.valueOf(text.trim()));
+        return value == null ? defaultValue : value;
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = getParsed(key, "boolean", text -> Boolean.valueOf(text.trim()));
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Reads a duration written as milliseconds ({@code 5000}), with a unit suffix
+     * ({@code 200ms}, {@code 5s}, {@code 2m}, {@code 1h}) or in ISO-8601 ({@code PT5S})
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        Duration value = getParsed(key, "duration", ConfigSnapshot::parseDuration);
+        return value == null ? defaultValue : value;
+    }
+
+    public URI getUri(String key, URI defaultValue) {
+        URI value = getParsed(key, "uri", text -> URI.create(text.trim()));
+        return value == null ? defaultValue : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getParsed(String key, String type, Function<String, T> parser) {
+        String cacheKey = type + ':' + key;
+        Object cached = parsed.get(cacheKey);
+        if (cached != null) {
+            return (T) cached;
+        }
+        String value = values.get(key);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            T result = parser.apply(value);
+            parsed.put(cacheKey, result);
+            return result;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + type + " value for '" + key + "': '" + value + "'", e);
+        }
+    }
+
+    private static Duration parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        if (value.startsWith("pt") || value.startsWith("p")) {
+            return Duration.parse(value.toUpperCase(Locale.ROOT));
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2).trim()));
+        }
+        char unit = value.charAt(value.length() - 1);
+        if (Character.isDigit(unit)) {
+            return Duration.ofMillis(Long.parseLong(value));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1).trim());
+        switch (unit) {
+            case 's':
+                return Duration.ofSeconds(amount);
+            case 'm':
+                return Duration.ofMinutes(amount);
+            case 'h':
+                return Duration.ofHours(amount);
+            default:
+                throw new IllegalArgumentException("Unknown duration unit: " + unit);
+        }
+    }
+}
@@ -0,0 +1,449 @@
+package in.test.backend.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.testng.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Waits for rows written by the system under test, with one watermark query per table per poll tick
+ * <p>
+ * Tests register expectations (a row predicate) instead of polling themselves. For each watched table
+ * the checker tails new rows in watermark order ({@code WHERE <watermark> > ? ORDER BY <watermark> LIMIT n},
+ * or {@code WHERE (<updated_at>, <key>) > (?, ?)} for updated-at tables)
+ * and matches every row against all pending expectations of that table, so DB load follows the number of
+ * tables, not the number of waiting tests. Tailed rows are kept in a bounded buffer, which answers
+ * expectations registered after their row was already read; only an expectation older than the buffer
+ * costs an extra range query, merged for all such expectations of the tick. Before an expectation times
+ * out, the range the tail has passed is read once more, so a row that committed out of watermark order
+ * (a lower id committing after a higher one was read) still matches.
+ * <p>
+ * Poll intervals adapt per table: the minimum while rows or expectations arrive, doubling up to the
+ * maximum while nothing happens, and no polling at all while no expectation is pending.
+ * <pre>
+ * TableWatch orders = TableWatch.autoIncrement(DBHost.MYSQL, "mydb", "orders", "id");
+ * Object mark = checker.watermark(orders);           // before the API write
+ * ... call the API ...
+ * Map&lt;String, Object&gt; row = checker.awaitRow(orders, mark, r -> orderId.equals(r.get("order_id")));
+ * </pre>
+ * Settings: {@code consistency.timeout}, {@code consistency.poll.minInterval}, {@code consistency.poll.maxInterval},
+ * {@code consistency.batchSize}, {@code consistency.bufferSize} and {@code consistency.pollerThreads}.
+ */
+@Slf4j
+public class ConsistencyChecker {
+
+    // Configuration keys
+    private static final String TIMEOUT_KEY = "consistency.timeout";
+    private static final String MIN_INTERVAL_KEY = "consistency.poll.minInterval";
+    private static final String MAX_INTERVAL_KEY = "consistency.poll.maxInterval";
+    private static final String BATCH_SIZE_KEY = "consistency.batchSize";
+    private static final String BUFFER_SIZE_KEY = "consistency.bufferSize";
+    private static final String POLLER_THREADS_KEY = "consistency.pollerThreads";
+
+    // Default values
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration DEFAULT_MIN_INTERVAL = Duration.ofMillis(50);
+    private static final Duration DEFAULT_MAX_INTERVAL = Duration.ofSeconds(1);
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_BUFFER_SIZE = 10_000;
+    private static final int DEFAULT_POLLER_THREADS = 2;
+
+    private static final ConsistencyChecker INSTANCE = new ConsistencyChecker();
+
+    private final Duration defaultTimeout;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+    private final int batchSize;
+    private final int bufferSize;
+    private final ScheduledExecutorService poller;
+    private final Map<String, TableState> tables = new ConcurrentHashMap<>();
+    private final LongAdder queries = new LongAdder();
+
+    private ConsistencyChecker() {
+        defaultTimeout = ConfigManager.getDuration(TIMEOUT_KEY, DEFAULT_TIMEOUT);
+        minIntervalNanos = ConfigManager.getDuration(MIN_INTERVAL_KEY, DEFAULT_MIN_INTERVAL).toNanos();
+        maxIntervalNanos = Math.max(minIntervalNanos, ConfigManager.getDuration(MAX_INTERVAL_KEY, DEFAULT_MAX_INTERVAL).toNanos());
+        batchSize = ConfigManager.getInt(BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE);
+        bufferSize = ConfigManager.getInt(BUFFER_SIZE_KEY, DEFAULT_BUFFER_SIZE);
+        poller = Executors.newScheduledThreadPool(ConfigManager.getInt(POLLER_THREADS_KEY, DEFAULT_POLLER_THREADS),
+                Threads.daemonFactory("consistency-poller-"));
+    }
+
+    public static ConsistencyChecker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts watching a table from its current watermark. Expectations registered without their own
+     * watermark match rows written after this call, so call it before the writes, e.g. in {@code @BeforeClass}.
+     * @return the watermark the table is watched from, null for an empty table
+     */
+    public Object watch(TableWatch table) {
+        return stateOf(table).origin;
+    }
+
+    /**
+     * Reads the current highest watermark of the table; take it before a write and pass it to
+     * {@link #expect(TableWatch, Object, Predicate, Duration)} to match only rows written afterwards
+     */
+    public Object watermark(TableWatch table) {
+        stateOf(table);
+        return queryWatermark(table);
+    }
+
+    /**
+     * Expects a matching row written after the table started being watched, within the default timeout
+     */
+    public CompletableFuture<Map<String, Object>> expect(TableWatch table, Predicate<Map<String, Object>> matcher) {
+        return expect(table, stateOf(table).origin, matcher, defaultTimeout);
+    }
+
+    /**
+     * @param since   watermark the row must be past, as returned by {@link #watermark(TableWatch)}
+     * @param matcher row predicate, evaluated on the poller thread
+     * @param timeout how long to wait for the row
+     * @return future completed with the first matching row, or exceptionally with a {@link TimeoutException}
+     */
+    public CompletableFuture<Map<String, Object>> expect(TableWatch table, Object since,
+                                                         Predicate<Map<String, Object>> matcher, Duration timeout) {
+        TableState state = stateOf(table);
+        Expectation expectation = new Expectation(since, matcher, System.nanoTime() + timeout.toNanos());
+        state.incoming.add(expectation);
+        if (state.scheduled.compareAndSet(false, true)) {
+            poller.execute(() -> poll(state));
+        }
+        return expectation.future;
+    }
+
+    /**
+     * Blocks until a matching row written after {@code since} appears, failing the test on timeout
+     */
+    public Map<String, Object> awaitRow(TableWatch table, Object since, Predicate<Map<String, Object>> matcher) {
+        return await(table, expect(table, since, matcher, defaultTimeout));
+    }
+
+    /**
+     * Waits for an expectation registered with {@link #expect}, failing the test when it times out
+     */
+    public static Map<String, Object> await(TableWatch table, CompletableFuture<Map<String, Object>> expectation) {
+        try {
+            return expectation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a row in " + table, e);
+        } catch (ExecutionException e) {
+            Assert.fail("No matching row in " + table + ": " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Watermark and range queries issued so far, across all tables
+     */
+    public long getQueryCount() {
+        return queries.sum();
+    }
+
+    private TableState stateOf(TableWatch table) {
+        TableState state = tables.get(table.key());
+        if (state == null) {
+            state = tables.computeIfAbsent(table.key(), key -> new TableState(table, queryWatermark(table)));
+        }
+        return state;
+    }
+
+    private void poll(TableState state) {
+        long delay;
+        try {
+            delay = pollOnce(state);
+        } catch (RuntimeException e) {
+            log.warn("Polling {} failed: {}", state.table, e.getMessage());
+            delay = maxIntervalNanos;
+        }
+        if (!state.pending.isEmpty() || !state.incoming.isEmpty()) {
+            poller.schedule(() -> poll(state), delay, TimeUnit.NANOSECONDS);
+            return;
+        }
+        state.scheduled.set(false);
+        // An expectation may have arrived after the check above
+        if (!state.incoming.isEmpty() && state.scheduled.compareAndSet(false, true)) {
+            poller.execute(() -> poll(state));
+        }
+    }
+
+    /**
+     * One tick for one table; runs on a poller thread, never concurrently for the same table
+     * @return delay before the next tick
+     */
+    private long pollOnce(TableState state) {
+        List<Expectation> newcomers = new ArrayList<>();
+        for (Expectation expectation; (expectation = state.incoming.poll()) != null; ) {
+            newcomers.add(expectation);
+        }
+        if (!newcomers.isEmpty()) {
+            matchRows(state, state.buffer, newcomers);
+            catchUp(state, newcomers);
+            state.pending.addAll(newcomers);
+        }
+
+        List<Map<String, Object>> rows = tail(state);
+        matchRows(state, rows, state.pending);
+        expire(state);
+
+        if (rows.size() >= batchSize) {
+            return 0;
+        }
+        if (!rows.isEmpty() || !newcomers.isEmpty()) {
+            state.intervalNanos = minIntervalNanos;
+        } else {
+            state.intervalNanos = Math.min(state.intervalNanos * 2, maxIntervalNanos);
+        }
+        return state.intervalNanos;
+    }
+
+    /**
+     * Reads rows below the buffer for newcomers that are older than it, with one query for all of them
+     */
+    private void catchUp(TableState state, List<Expectation> newcomers) {
+        if (state.floor == null) {
+            return;
+        }
+        List<Expectation> stale = new ArrayList<>();
+        Object lowest = state.floor;
+        for (Expectation expectation : newcomers) {
+            if (!expectation.future.isDone() && compare(expectation.since, state.floor) < 0) {
+                stale.add(expectation);
+                lowest = compare(expectation.since, lowest) < 0 ? expectation.since : lowest;
+            }
+        }
+        if (stale.isEmpty()) {
+            return;
+        }
+        matchRows(state, readRange(state.table, lowest, state.floor), stale);
+    }
+
+    /**
+     * Reads the rows past {@code lowest} (every row when it is null) up to and including {@code highest}
+     */
+    private List<Map<String, Object>> readRange(TableWatch table, Object lowest, Object highest) {
+        String column = table.getWatermarkColumn();
+        String sql = "SELECT * FROM " + table.getTable() + " WHERE "
+                + (lowest == null ? "" : column + " " + table.comparator() + " ? AND ")
+                + column + " <= ? ORDER BY " + column;
+        return lowest == null ? query(table, sql, highest) : query(table, sql, lowest, highest);
+    }
+
+    /**
+     * Reads the next rows past the cursor into the buffer. Updated-at tables are paged by watermark and key,
+     * so a page full of rows sharing one timestamp still moves the cursor forward.
+     * @return rows not seen before
+     */
+    private List<Map<String, Object>> tail(TableState state) {
+        TableWatch table = state.table;
+        String column = table.getWatermarkColumn();
+        String select = "SELECT * FROM " + table.getTable();
+        String page = " ORDER BY " + table.orderBy() + " LIMIT ?";
+        List<Map<String, Object>> read;
+        if (state.cursor == null) {
+            read = query(table, select + page, batchSize);
+        } else if (state.cursorKey == null) {
+            // Watched from a watermark alone: rows sharing it are read again
+            read = query(table, select + " WHERE " + column + " " + table.comparator() + " ?" + page,
+                    state.cursor, batchSize);
+        } else {
+            read = query(table, select + " WHERE (" + table.orderBy() + ") > (?, ?)" + page,
+                    state.cursor, state.cursorKey, batchSize);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(read.size());
+        for (Map<String, Object> row : read) {
+            state.cursor = row.get(column);
+            if (table.hasTiebreaker()) {
+                state.cursorKey = row.get(table.getKeyColumn());
+            }
+            rows.add(row);
+            state.buffer.addLast(row);
+            if (state.buffer.size() > bufferSize) {
+                state.floor = state.buffer.removeFirst().get(column);
+            }
+        }
+        return rows;
+    }
+
+    private void matchRows(TableState state, Iterable<Map<String, Object>> rows, List<Expectation> expectations) {
+        if (expectations.isEmpty()) {
+            return;
+        }
+        String column = state.table.getWatermarkColumn();
+        boolean inclusive = state.table.getWatermarkType() == TableWatch.WatermarkType.UPDATED_AT;
+        for (Map<String, Object> row : rows) {
+            Object watermark = row.get(column);
+            for (Iterator<Expectation> it = expectations.iterator(); it.hasNext(); ) {
+                Expectation expectation = it.next();
+                if (expectation.future.isDone()) {
+                    it.remove();
+                    continue;
+                }
+                int order = expectation.since == null ? 1 : compare(watermark, expectation.since);
+                if ((order > 0 || (inclusive && order == 0)) && matches(expectation, row)) {
+                    expectation.future.complete(row);
+                    it.remove();
+                }
+            }
+            if (expectations.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    private static boolean matches(Expectation expectation, Map<String, Object> row) {
+        try {
+            return expectation.matcher.test(row);
+        } catch (RuntimeException e) {
+            expectation.future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    /**
+     * Times out the expectations past their deadline. Watermarks are assigned before commit, so a row
+     * that committed after a higher one was tailed lies behind the cursor and the tail never returns it;
+     * the range the tail has passed is read again once, for all expectations expiring in this tick,
+     * before any of them fails.
+     */
+    private void expire(TableState state) {
+        long now = System.nanoTime();
+        List<Expectation> expiring = new ArrayList<>();
+        Object lowest = state.cursor;
+        for (Iterator<Expectation> it = state.pending.iterator(); it.hasNext(); ) {
+            Expectation expectation = it.next();
+            if (expectation.future.isDone()) {
+                it.remove();
+            } else if (now - expectation.deadlineNanos > 0) {
+                expiring.add(expectation);
+                lowest = compare(expectation.since, lowest) < 0 ? expectation.since : lowest;
+                it.remove();
+            }
+        }
+        if (expiring.isEmpty()) {
+            return;
+        }
+        if (state.cursor != null) {
+            matchRows(state, readRange(state.table, lowest, state.cursor), new ArrayList<>(expiring));
+        }
+        for (Expectation expectation : expiring) {
+            expectation.future.completeExceptionally(new TimeoutException("no row past watermark "
+                    + expectation.since + " matched within the timeout (last read " + state.cursor + ")"));
+        }
+    }
+
+    private Object queryWatermark(TableWatch table) {
+        String sql = "SELECT MAX(" + table.getWatermarkColumn() + ") AS watermark FROM " + table.getTable();
+        return query(table, sql).get(0).get("watermark");
+    }
+
+    private List<Map<String, Object>> query(TableWatch table, String sql, Object... params) {
+        queries.increment();
+        DataSource dataSource = DbUtils.dataSource(table.getDbHost(), table.getDbName());
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                stmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                return DbUtils.toMaps(rs);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Watermark query failed on " + table, e);
+        }
+    }
+
+    /**
+     * Orders watermark values as read from JDBC; null sorts first
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            return Long.compare(((Number) left).longValue(), ((Number) right).longValue());
+        }
+        if (left instanceof Timestamp) {
+            left = ((Timestamp) left).toLocalDateTime();
+        }
+        if (right instanceof Timestamp) {
+            right = ((Timestamp) right).toLocalDateTime();
+        }
+        if (left instanceof LocalDateTime && right instanceof LocalDateTime) {
+            return ((LocalDateTime) left).compareTo((LocalDateTime) right);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static final class Expectation {
+
+        private final Object since;
+        private final Predicate<Map<String, Object>> matcher;
+        private final long deadlineNanos;
+        private final CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
+
+        private Expectation(Object since, Predicate<Map<String, Object>> matcher, long deadlineNanos) {
+            this.since = since;
+            this.matcher = matcher;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    /**
+     * Per-table tail state. Apart from the two concurrent fields it is only touched by the poll of the
+     * table, and polls of one table never overlap.
+     */
+    private final class TableState {
+
+        private final TableWatch table;
+        private final Object origin;
+        private final Queue<Expectation> incoming = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final List<Expectation> pending = new ArrayList<>();
+        private final Deque<Map<String, Object>> buffer = new ArrayDeque<>();
+        private Object cursor;
+        // Key of the last row read, for tables paged by watermark and key
+        private Object cursorKey;
+        // Rows at or below the floor are no longer in the buffer
+        private Object floor;
+        private long intervalNanos = minIntervalNanos;
+
+        private TableState(TableWatch table, Object origin) {
+            this.table = table;
+            this.origin = origin;
+            this.cursor = origin;
+            this.floor = origin;
+            log.debug("Watching {} from watermark {}", table, origin);
+        }
+    }
+}
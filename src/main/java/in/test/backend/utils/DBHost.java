@@ -6,18 +6,20 @@ import lombok.Getter;
 @Getter
 
 public enum DBHost {
-    MYSQL("mysql.url", "mysql.driver", "mysql.username", "mysql.password");
+    MYSQL("mysql.url", "mysql.driver", "mysql.username", "mysql.password", "mysql.pool");
 
     private final String urlKey;
     private final String driverKey;
     private final String usernameKey;
     private final String passwordKey;
+    private final String poolKeyPrefix;
 
-    DBHost(String urlKey, String driverKey, String usernameKey, String passwordKey) {
+    DBHost(String urlKey, String driverKey, String usernameKey, String passwordKey, String poolKeyPrefix) {
         this.urlKey = urlKey;
         this.driverKey = driverKey;
         this.usernameKey = usernameKey;
         this.passwordKey = passwordKey;
+        this.poolKeyPrefix = poolKeyPrefix;
     }
 
     public String getDbHostname(String dbName) {
@@ -25,5 +27,8 @@ public enum DBHost {
         return template.replace("$db", dbName);
     }
 
-}
+    public String getPoolKey(String setting) {
+        return poolKeyPrefix + "." + setting;
+    }
 
+}
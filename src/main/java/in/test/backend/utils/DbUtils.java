@@ -1,79 +1,492 @@
 package in.test.backend.utils;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Database helper backed by one connection pool per DB host and database name.
+ * <p>
+ * {@link #useDatabase(DBHost, String)} binds the calling thread to a pool; {@link #executeQuery(String)}
+ * and {@link #executeUpdate(String)} borrow a connection from that pool for the duration of the
+ * statement and return it right after, so parallel test classes never share a {@link Connection}.
+ * A thread that never selected a database uses the pool selected last by any thread, so a database
+ * chosen in a suite-level setup method also serves the test threads; selecting one on a thread
+ * overrides it for that thread only.
+ * <p>
+ * For large results use {@link #streamQuery(String)} or {@link #forEachRow(String, Consumer)}: rows are
+ * read through a forward-only cursor in chunks of {@code fetchSize} and share one column schema,
+ * so heap usage does not grow with the size of the result.
+ * <p>
+ * Parameterized variants bind values through {@link PreparedStatement}s that the driver caches per
+ * connection (LRU, {@code mysql.pool.prepStmtCacheSize}), and {@link #executeBatch(String, List)} sends
+ * parameter sets in JDBC batches that MySQL rewrites into multi-row inserts.
+ */
+@Slf4j
 public class DbUtils {
-    private static Connection connection;
 
-    public static Connection connectToDB(DBHost dbHost, String dbName) {
-        try {
-            // Close previous connection if open
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
+    // Pool setting keys, prefixed with DBHost#getPoolKeyPrefix
+    private static final String MAX_SIZE_KEY = "maxSize";
+    private static final String MIN_IDLE_KEY = "minIdle";
+    private static final String CONNECTION_TIMEOUT_KEY = "connectionTimeoutMs";
+    private static final String LEAK_DETECTION_KEY = "leakDetectionMs";
+    private static final String FETCH_SIZE_KEY = "fetchSize";
+    private static final String BATCH_SIZE_KEY = "batchSize";
 
-            // Load driver based on DB type
-            String driver = ConfigManager.get(dbHost.getDriverKey());
-            Class.forName(driver);
+    // Default values
+    private static final int DEFAULT_MAX_SIZE = 10;
+    private static final int DEFAULT_MIN_IDLE = 2;
+    private static final long DEFAULT_CONNECTION_TIMEOUT_MS = 10_000;
+    private static final long DEFAULT_LEAK_DETECTION_MS = 30_000;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
 
-            // Get DB URL with dbName injected
-            String dbUrl = dbHost.getDbHostname(dbName);
+    // Connector/J properties passed to every pooled connection, with their defaults
+    private static final Map<String, String> DRIVER_PROPERTIES = new LinkedHashMap<>();
 
-            // Get credentials based on DB type
-            String username = ConfigManager.get(dbHost.getUsernameKey());
-            String password = ConfigManager.get(dbHost.getPasswordKey());
+    static {
+        // Lets a positive fetch size open a server-side cursor instead of buffering the whole result
+        DRIVER_PROPERTIES.put("useCursorFetch", "true");
+        // Per-connection LRU cache of prepared statements
+        DRIVER_PROPERTIES.put("cachePrepStmts", "true");
+        DRIVER_PROPERTIES.put("prepStmtCacheSize", "250");
+        DRIVER_PROPERTIES.put("prepStmtCacheSqlLimit", "2048");
+        DRIVER_PROPERTIES.put("useServerPrepStmts", "true");
+        // Sends a batch of INSERTs as multi-row statements
+        DRIVER_PROPERTIES.put("rewriteBatchedStatements", "true");
+    }
 
-            // Establish new connection
-            connection = DriverManager.getConnection(dbUrl, username, password);
-            return connection;
+    private static final Map<String, Pool> POOLS = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Pool> CURRENT_POOL = new ThreadLocal<>();
+    // Pool used by threads that have not selected one themselves
+    private static volatile Pool lastSelected;
+    // Connection handed out by the deprecated connectToDB, returned to the pool by close()
+    private static final ThreadLocal<Connection> LEGACY_CONNECTION = new ThreadLocal<>();
 
-        } catch (Exception e) {
+    /**
+     * Binds the calling thread to the pool for the given database, creating the pool on first use.
+     * The pool also becomes the default of threads that have not selected a database.
+     * @param dbHost DB host type
+     * @param dbName database name injected into the host URL
+     * @return the pooled data source
+     */
+    public static DataSource useDatabase(DBHost dbHost, String dbName) {
+        Pool pool = getPool(dbHost, dbName);
+        // A connection held for connectToDB belongs to the previously selected database
+        closeLegacyConnection();
+        CURRENT_POOL.set(pool);
+        lastSelected = pool;
+        return pool.dataSource;
+    }
+
+    /**
+     * Binds the calling thread to the pool for the given database and borrows one connection from it
+     * for callers that still use the returned {@link Connection} directly. The connection is held until
+     * {@link #close()} or the next database selection on this thread, and the statements of this thread
+     * run on it, so a thread never holds more than one connection of the pool.
+     * @param dbHost DB host type
+     * @param dbName database name injected into the host URL
+     * @return a pooled connection
+     * @deprecated use {@link #useDatabase(DBHost, String)}, which does not hold a connection
+     */
+    @Deprecated
+    public static Connection connectToDB(DBHost dbHost, String dbName) {
+        DataSource dataSource = useDatabase(dbHost, dbName);
+        try {
+            Connection connection = dataSource.getConnection();
+            LEGACY_CONNECTION.set(connection);
+            return connection;
+        } catch (SQLException e) {
             throw new RuntimeException("Failed to connect to database: " + dbName, e);
         }
     }
 
-
+    /**
+     * Opens the pool for the given database and fills it up to its minimum idle size,
+     * so the first queries of a suite do not pay for the connection handshake.
+     * Call from a suite-level setup method.
+     * @param dbHost DB host type
+     * @param dbName database name injected into the host URL
+     */
+    public static void warmUp(DBHost dbHost, String dbName) {
+        HikariDataSource dataSource = getPool(dbHost, dbName).dataSource;
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < dataSource.getMinimumIdle(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to warm up connection pool for database: " + dbName, e);
+        } finally {
+            connections.forEach(connection -> closeQuietly(connection));
+        }
+        log.info("Warmed up {} connections for {}/{}", connections.size(), dbHost, dbName);
+    }
 
     public static List<Map<String, Object>> executeQuery(String query) {
-        List<Map<String, Object>> resultList = new ArrayList<>();
-        try (Statement stmt = connection.createStatement();
+        try (Connection connection = borrowConnection();
+             Statement stmt = connection.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
+            return toMaps(rs);
+        } catch (SQLException e) {
+            throw new RuntimeException("Query execution failed", e);
+        }
+    }
 
-            ResultSetMetaData metaData = rs.getMetaData();
-            int columnCount = metaData.getColumnCount();
+    /**
+     * Runs a parameterized query.
+     * @param query  SQL query with {@code ?} placeholders
+     * @param params values bound to the placeholders in order
+     * @return rows as maps keyed by column label
+     */
+    public static List<Map<String, Object>> executeQuery(String query, Object... params) {
+        try (Connection connection = borrowConnection();
+             PreparedStatement stmt = prepare(connection, query, params);
+             ResultSet rs = stmt.executeQuery()) {
+            return toMaps(rs);
+        } catch (SQLException e) {
+            throw new RuntimeException("Query execution failed", e);
+        }
+    }
 
-            while (rs.next()) {
-                Map<String, Object> rowMap = new HashMap<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    rowMap.put(metaData.getColumnLabel(i), rs.getObject(i));
-                }
-                resultList.add(rowMap);
-            }
+    /**
+     * Streams the result of a query row by row using the pool's configured fetch size.
+     * The stream holds a pooled connection until it is closed, so always use try-with-resources.
+     * @param query SQL query
+     * @return lazily populated stream of rows
+     */
+    public static Stream<Row> streamQuery(String query) {
+        return streamQuery(query, currentPool().fetchSize);
+    }
+
+    /**
+     * Streams the result of a query row by row. With {@code mysql.pool.useCursorFetch=true}
+     * MySQL keeps a server-side cursor and sends {@code fetchSize} rows per round trip;
+     * {@link Integer#MIN_VALUE} switches the driver to row-at-a-time streaming instead.
+     * The stream holds a pooled connection until it is closed, so always use try-with-resources.
+     * @param query     SQL query
+     * @param fetchSize rows fetched per round trip
+     * @return lazily populated stream of rows
+     */
+    public static Stream<Row> streamQuery(String query, int fetchSize) {
+        Connection connection = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try {
+            connection = borrowConnection();
+            stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(fetchSize);
+            rs = stmt.executeQuery(query);
+            return toStream(rs, stmt, connection);
         } catch (SQLException e) {
+            closeQuietly(rs, stmt, connection);
             throw new RuntimeException("Query execution failed", e);
         }
-        return resultList;
+    }
+
+    /**
+     * Runs a query and hands each row to the callback as it is read. The connection is
+     * returned to the pool when the callback has seen the last row.
+     * @param query    SQL query
+     * @param consumer row callback
+     */
+    public static void forEachRow(String query, Consumer<Row> consumer) {
+        try (Stream<Row> rows = streamQuery(query)) {
+            rows.forEach(consumer);
+        }
     }
 
     public static int executeUpdate(String query) {
-        try (Statement stmt = connection.createStatement()) {
+        try (Connection connection = borrowConnection();
+             Statement stmt = connection.createStatement()) {
             return stmt.executeUpdate(query);
         } catch (SQLException e) {
             throw new RuntimeException("Update execution failed", e);
         }
     }
 
+    /**
+     * Runs a parameterized insert, update or delete.
+     * @param query  SQL statement with {@code ?} placeholders
+     * @param params values bound to the placeholders in order
+     * @return number of affected rows
+     */
+    public static int executeUpdate(String query, Object... params) {
+        try (Connection connection = borrowConnection();
+             PreparedStatement stmt = prepare(connection, query, params)) {
+            return stmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("Update execution failed", e);
+        }
+    }
+
+    /**
+     * Runs one statement for many parameter sets in a single transaction, flushing a JDBC batch
+     * every {@code mysql.pool.batchSize} sets. Intended for seeding fixtures.
+     * @param query     SQL statement with {@code ?} placeholders
+     * @param paramSets one array of placeholder values per execution
+     * @return update counts in the order of {@code paramSets}
+     */
+    public static int[] executeBatch(String query, List<Object[]> paramSets) {
+        return executeBatch(query, paramSets, currentPool().batchSize);
+    }
+
+    /**
+     * Runs one statement for many parameter sets in a single transaction.
+     * @param query     SQL statement with {@code ?} placeholders
+     * @param paramSets one array of placeholder values per execution
+     * @param batchSize parameter sets sent per JDBC batch, at least 1
+     * @return update counts in the order of {@code paramSets}
+     */
+    public static int[] executeBatch(String query, List<Object[]> paramSets, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1, was " + batchSize);
+        }
+        int[] updateCounts = new int[paramSets.size()];
+        try (Connection connection = borrowConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(query)) {
+                int flushed = 0;
+                for (int i = 0; i < paramSets.size(); i++) {
+                    bind(stmt, paramSets.get(i));
+                    stmt.addBatch();
+                    if ((i + 1) % batchSize == 0 || i == paramSets.size() - 1) {
+                        int[] counts = stmt.executeBatch();
+                        System.arraycopy(counts, 0, updateCounts, flushed, counts.length);
+                        flushed += counts.length;
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackFailure) {
+                    // Keep the cause of the failed batch; the rollback error is secondary
+                    e.addSuppressed(rollbackFailure);
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Batch execution failed", e);
+        }
+        return updateCounts;
+    }
+
+    /**
+     * Unbinds the calling thread from its pool and returns the connection taken by
+     * {@link #connectToDB(DBHost, String)}, if any. The thread falls back to the last selected pool.
+     * Pools stay open for other threads; use {@link #closeAll()} at suite end to release them.
+     */
     public static void close() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
+        closeLegacyConnection();
+        CURRENT_POOL.remove();
+    }
+
+    /**
+     * Closes every pool and all of its connections.
+     */
+    public static void closeAll() {
+        POOLS.values().forEach(pool -> pool.dataSource.close());
+        POOLS.clear();
+        lastSelected = null;
+    }
+
+    /**
+     * Borrows a connection from the pool bound to the calling thread, or from the last selected pool
+     * when the thread has none. The caller must close it,
+     * which returns it to the pool. A thread that called {@link #connectToDB(DBHost, String)} gets the
+     * connection it already holds, on which close does nothing.
+     */
+    public static Connection borrowConnection() throws SQLException {
+        Connection legacy = LEGACY_CONNECTION.get();
+        if (legacy != null) {
+            if (!legacy.isClosed()) {
+                return unclosable(legacy);
             }
+            LEGACY_CONNECTION.remove();
+        }
+        return currentPool().dataSource.getConnection();
+    }
+
+    /**
+     * The pooled data source for the given database, without binding the calling thread to it
+     */
+    static DataSource dataSource(DBHost dbHost, String dbName) {
+        return getPool(dbHost, dbName).dataSource;
+    }
+
+    private static Pool currentPool() {
+        Pool pool = CURRENT_POOL.get();
+        if (pool == null) {
+            pool = lastSelected;
+        }
+        if (pool == null) {
+            throw new IllegalStateException("No database selected, call useDatabase first");
+        }
+        return pool;
+    }
+
+    private static Connection unclosable(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void closeLegacyConnection() {
+        Connection connection = LEGACY_CONNECTION.get();
+        if (connection != null) {
+            LEGACY_CONNECTION.remove();
+            closeQuietly(connection);
+        }
+    }
+
+    private static Pool getPool(DBHost dbHost, String dbName) {
+        return POOLS.computeIfAbsent(dbHost.name() + "/" + dbName, key -> createPool(dbHost, dbName));
+    }
+
+    private static PreparedStatement prepare(Connection connection, String query, Object[] params) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(query);
+        try {
+            bind(stmt, params);
+            return stmt;
         } catch (SQLException e) {
-            throw new RuntimeException("Failed to close DB connection", e);
+            stmt.close();
+            throw e;
+        }
+    }
+
+    private static void bind(PreparedStatement stmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    static List<Map<String, Object>> toMaps(ResultSet rs) throws SQLException {
+        List<Map<String, Object>> resultList = new ArrayList<>();
+        Row.Schema schema = new Row.Schema(rs.getMetaData());
+        int columnCount = schema.size();
+
+        while (rs.next()) {
+            Map<String, Object> rowMap = new HashMap<>();
+            for (int i = 1; i <= columnCount; i++) {
+                rowMap.put(schema.label(i - 1), rs.getObject(i));
+            }
+            resultList.add(rowMap);
+        }
+        return resultList;
+    }
+
+    static Stream<Row> toStream(ResultSet rs, Statement stmt, Connection connection) throws SQLException {
+        Row.Schema schema = new Row.Schema(rs.getMetaData());
+        int columnCount = schema.size();
+        Spliterator<Row> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Row> action) {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    Object[] values = new Object[columnCount];
+                    for (int i = 0; i < columnCount; i++) {
+                        values[i] = rs.getObject(i + 1);
+                    }
+                    action.accept(new Row(schema, values));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RuntimeException("Failed to read next row", e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> closeQuietly(rs, stmt, connection));
+    }
+
+    private static Pool createPool(DBHost dbHost, String dbName) {
+        try {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("db-" + dbHost.name().toLowerCase() + "-" + dbName);
+            config.setDriverClassName(ConfigManager.get(dbHost.getDriverKey()));
+            config.setJdbcUrl(dbHost.getDbHostname(dbName));
+            config.setUsername(ConfigManager.get(dbHost.getUsernameKey()));
+            config.setPassword(ConfigManager.get(dbHost.getPasswordKey()));
+            config.setMaximumPoolSize(getInt(dbHost, MAX_SIZE_KEY, DEFAULT_MAX_SIZE));
+            config.setMinimumIdle(getInt(dbHost, MIN_IDLE_KEY, DEFAULT_MIN_IDLE));
+            config.setConnectionTimeout(getLong(dbHost, CONNECTION_TIMEOUT_KEY, DEFAULT_CONNECTION_TIMEOUT_MS));
+            // Connections held longer than this are logged with the borrowing stack trace
+            config.setLeakDetectionThreshold(getLong(dbHost, LEAK_DETECTION_KEY, DEFAULT_LEAK_DETECTION_MS));
+            DRIVER_PROPERTIES.forEach((property, defaultValue) ->
+                    config.addDataSourceProperty(property, getString(dbHost, property, defaultValue)));
+            // Hikari validates idle connections with Connection#isValid before handing them out
+            return new Pool(new HikariDataSource(config),
+                    getInt(dbHost, FETCH_SIZE_KEY, DEFAULT_FETCH_SIZE),
+                    getInt(dbHost, BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to connect to database: " + dbName, e);
+        }
+    }
+
+    private static int getInt(DBHost dbHost, String setting, int defaultValue) {
+        return ConfigManager.getInt(dbHost.getPoolKey(setting), defaultValue);
+    }
+
+    private static String getString(DBHost dbHost, String setting, String defaultValue) {
+        return ConfigManager.get(dbHost.getPoolKey(setting), defaultValue).trim();
+    }
+
+    private static long getLong(DBHost dbHost, String setting, long defaultValue) {
+        return ConfigManager.getLong(dbHost.getPoolKey(setting), defaultValue);
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.warn("Failed to close {}: {}", resource.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private static final class Pool {
+
+        private final HikariDataSource dataSource;
+        private final int fetchSize;
+        private final int batchSize;
+
+        private Pool(HikariDataSource dataSource, int fetchSize, int batchSize) {
+            this.dataSource = dataSource;
+            this.fetchSize = fetchSize;
+            this.batchSize = batchSize;
         }
     }
-}
\ No newline at end of file
+}
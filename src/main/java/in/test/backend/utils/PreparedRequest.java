@@ -0,0 +1,32 @@
+package in.test.backend.utils;
+
+import io.restassured.specification.RequestSpecification;
+import lombok.Getter;
+
+/**
+ * A request DTO together with its JSON body, serialized once
+ * <p>
+ * The bytes are sent as they are, so neither RestAssured nor a retry serializes the DTO again.
+ */
+@Getter
+public final class PreparedRequest<R> {
+
+    private final R request;
+    private final byte[] body;
+
+    PreparedRequest(R request, byte[] body) {
+        this.request = request;
+        this.body = body;
+    }
+
+    /**
+     * Sets the pre-serialized body on the specification
+     */
+    public RequestSpecification applyTo(RequestSpecification requestSpec) {
+        return requestSpec.body(body);
+    }
+
+    public int size() {
+        return body.length;
+    }
+}
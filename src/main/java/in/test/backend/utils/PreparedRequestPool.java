@@ -0,0 +1,167 @@
+package in.test.backend.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pre-serialized requests produced ahead of consumption by a background thread
+ * <p>
+ * The producer pauses while the pooled bodies add up to {@code maxBytes} (a single larger body is
+ * still let through), so memory stays bounded however many items the run needs. Consumers
+ * {@link #take()} from any thread; {@link #stream()} feeds a {@code BatchRunner} or a load loop.
+ */
+@Slf4j
+public class PreparedRequestPool<R> implements AutoCloseable {
+
+    private final long maxBytes;
+    private final Deque<PreparedRequest<R>> items = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+    private final Condition notEmpty = lock.newCondition();
+    private final Thread producer;
+    private long pooledBytes;
+    private boolean exhausted;
+    private RuntimeException failure;
+
+    PreparedRequestPool(Stream<PreparedRequest<R>> source, long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.producer = new Thread(() -> produce(source), "prepared-request-producer");
+        producer.setDaemon(true);
+        producer.start();
+    }
+
+    /**
+     * Waits for the next request
+     * @return the next request, or null once every item has been taken
+     */
+    public PreparedRequest<R> take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (items.isEmpty()) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (exhausted) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            PreparedRequest<R> item = items.removeFirst();
+            pooledBytes -= item.size();
+            notFull.signal();
+            return item;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the remaining requests in order; blocks while the producer catches up
+     */
+    public Stream<PreparedRequest<R>> stream() {
+        Iterator<PreparedRequest<R>> iterator = new Iterator<>() {
+            private PreparedRequest<R> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public PreparedRequest<R> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                PreparedRequest<R> item = next;
+                next = null;
+                return item;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Serialized bytes currently held
+     */
+    public long getPooledBytes() {
+        lock.lock();
+        try {
+            return pooledBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the producer; requests already pooled can still be taken
+     */
+    @Override
+    public void close() {
+        producer.interrupt();
+    }
+
+    private void produce(Stream<PreparedRequest<R>> source) {
+        try (source) {
+            source.forEach(this::put);
+        } catch (ProducerStopped e) {
+            log.debug("Prepared request producer stopped");
+        } catch (RuntimeException e) {
+            log.error("Generating requests failed: {}", e.getMessage());
+            lock.lock();
+            try {
+                failure = e;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            lock.lock();
+            try {
+                exhausted = true;
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void put(PreparedRequest<R> item) {
+        lock.lock();
+        try {
+            while (!items.isEmpty() && pooledBytes + item.size() > maxBytes) {
+                notFull.await();
+            }
+            items.addLast(item);
+            pooledBytes += item.size();
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            throw new ProducerStopped();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static final class ProducerStopped extends RuntimeException {
+
+        private ProducerStopped() {
+            super(null, null, false, false);
+        }
+    }
+}
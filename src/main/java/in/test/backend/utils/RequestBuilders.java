@@ -2,9 +2,15 @@ package in.test.backend.utils;
 
 import in.test.backend.dtos.requestDto.SampleRequest;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
 
 public class RequestBuilders implements IRequestBuilder<SampleRequest> {
 
+    private static final int MAX_ATTRIBUTES = 8;
+
     public void SampleRequest() {
 
     }
@@ -14,4 +20,24 @@ public class RequestBuilders implements IRequestBuilder<SampleRequest> {
 
     }
 
+    /**
+     * Reproducible sample requests: a merchant id and up to {@value #MAX_ATTRIBUTES} random attributes,
+     * built on top of the given template
+     */
+    public static RequestDataFactory<SampleRequest> sampleRequests(SampleRequest template, long seed) {
+        return new RequestDataFactory<>(SampleRequest.class, seed, (index, random) -> template.toBuilder()
+                .attribute1("merchant-" + index)
+                .attribute2(randomAttributes(template.getAttribute2(), random))
+                .build());
+    }
+
+    private static Map<String, String> randomAttributes(Map<String, String> base, Random random) {
+        Map<String, String> attributes = base == null ? new LinkedHashMap<>() : new LinkedHashMap<>(base);
+        int count = 1 + random.nextInt(MAX_ATTRIBUTES);
+        for (int i = 0; i < count; i++) {
+            attributes.put("attr-" + i, RequestDataFactory.randomAlphanumeric(random, 12));
+        }
+        return attributes;
+    }
+
 }
@@ -0,0 +1,123 @@
+package in.test.backend.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import in.test.backend.base.RestClient;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Reproducible request DTOs for data-driven and load runs
+ * <p>
+ * Item {@code i} is built by the generator from a {@link Random} seeded with the factory seed and
+ * {@code i}, so the same seed yields the same data whatever the order or concurrency of consumption.
+ * {@link #prepare(Object)} serializes a DTO once with the mapper RestClient uses; the resulting
+ * {@link PreparedRequest} is sent as raw bytes on every call and retry. {@link #pool(long, long)}
+ * moves generation and serialization to a background thread with a bounded memory footprint.
+ */
+public class RequestDataFactory<R> implements IRequestBuilder<R> {
+
+    /**
+     * Builds one DTO from a template and the item's random source
+     */
+    @FunctionalInterface
+    public interface Generator<R> {
+
+        /**
+         * @param index  position of the item, starting at 0
+         * @param random random source private to this item
+         */
+        R generate(long index, Random random);
+    }
+
+    private static final String ALPHANUMERIC = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+
+    private final long seed;
+    private final Generator<R> generator;
+    private final ObjectWriter writer;
+    private final AtomicLong next = new AtomicLong();
+
+    public RequestDataFactory(Class<R> requestClass, long seed, Generator<R> generator) {
+        this.seed = seed;
+        this.generator = generator;
+        this.writer = RestClient.objectMapper().writerFor(requestClass);
+    }
+
+    /**
+     * @return the next DTO in sequence
+     */
+    @Override
+    public R init() {
+        return generate(next.getAndIncrement());
+    }
+
+    /**
+     * @return the DTO at the given position; the same for a given seed and index
+     */
+    public R generate(long index) {
+        return generator.generate(index, new Random(mix(seed, index)));
+    }
+
+    /**
+     * @return items {@code 0..count-1}, generated lazily
+     */
+    public Stream<R> stream(long count) {
+        return LongStream.range(0, count).mapToObj(this::generate);
+    }
+
+    /**
+     * @return items {@code 0..count-1}, each serialized once, generated lazily
+     */
+    public Stream<PreparedRequest<R>> prepared(long count) {
+        return stream(count).map(this::prepare);
+    }
+
+    /**
+     * Serializes the DTO once, as RestAssured would
+     */
+    public PreparedRequest<R> prepare(R request) {
+        try {
+            return new PreparedRequest<>(request, writer.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize " + request.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Starts generating and serializing items {@code 0..count-1} in the background
+     * @param maxBytes serialized bytes the pool may hold before generation pauses
+     */
+    public PreparedRequestPool<R> pool(long count, long maxBytes) {
+        return new PreparedRequestPool<>(prepared(count), maxBytes);
+    }
+
+    /**
+     * @return random characters from {@code [A-Za-z0-9]}
+     */
+    public static String randomAlphanumeric(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHANUMERIC.charAt(random.nextInt(ALPHANUMERIC.length()));
+        }
+        return new String(chars);
+    }
+
+    @SafeVarargs
+    public static <T> T pick(Random random, T... values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Derives the seed of item {@code index} of a seeded sequence with the SplitMix64 finalizer, so
+     * neighbouring indexes get unrelated seeds
+     */
+    public static long mix(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
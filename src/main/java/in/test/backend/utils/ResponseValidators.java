@@ -1,20 +1,173 @@
 package in.test.backend.utils;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.github.fge.jsonschema.core.report.LogLevel;
+import com.github.fge.jsonschema.core.report.ProcessingMessage;
+import com.github.fge.jsonschema.core.report.ProcessingReport;
+import com.github.fge.jsonschema.main.JsonSchema;
+import com.github.fge.jsonschema.main.JsonSchemaFactory;
+import in.test.backend.common.ServiceEndpoints;
 import lombok.extern.slf4j.Slf4j;
+import org.testng.Assert;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Response validation, including JSON schema checks per endpoint
+ * <p>
+ * The schema of an endpoint is {@code schemas/<ENDPOINT_NAME>.json} on the classpath. It is parsed and
+ * compiled the first time the endpoint is validated and kept in a shared registry; endpoints without a
+ * schema are remembered as such, so later lookups cost one map read. Compiled schemas are immutable and
+ * validate concurrently. Validation takes the already parsed response tree, which RestClient then binds
+ * to the response class, so the body is parsed once.
+ * <p>
+ * Database checks wait for rows through the shared {@link ConsistencyChecker}, so concurrent tests do
+ * not each poll the database.
+ */
 @Slf4j
 public class ResponseValidators implements IValidator {
-    
+
+    private static final String SCHEMA_LOCATION = "schemas/";
+    private static final String DB_TIMEOUT_KEY = "consistency.timeout";
+    private static final Duration DEFAULT_DB_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final JsonSchemaFactory SCHEMA_FACTORY = JsonSchemaFactory.byDefault();
+    private static final Map<ServiceEndpoints, Optional<JsonSchema>> SCHEMAS = new ConcurrentHashMap<>();
+
+    private final ServiceEndpoints endpoint;
+    private final JsonNode node;
+    private final Map<TableWatch, List<CompletableFuture<Map<String, Object>>>> dbExpectations = new LinkedHashMap<>();
+
+    public ResponseValidators() {
+        this(null, null);
+    }
+
+    /**
+     * @param endpoint endpoint whose schema the node must satisfy
+     * @param node     parsed response body
+     */
+    public ResponseValidators(ServiceEndpoints endpoint, JsonNode node) {
+        this.endpoint = endpoint;
+        this.node = node;
+    }
+
     @Override
     public void validateNode() {
         log.info("Validating response node");
-        // Node validation logic can be added here
+        if (endpoint != null && node != null) {
+            assertValid(endpoint, node);
+        }
+    }
+
+    /**
+     * Registers a row the API call is expected to write; checked by {@link #validateDBEntities()}.
+     * Registration starts the wait right away, so register before doing other validation.
+     * @param since   watermark taken with {@link ConsistencyChecker#watermark(TableWatch)} before the call
+     * @param matcher row predicate
+     */
+    public ResponseValidators expectRow(TableWatch table, Object since, Predicate<Map<String, Object>> matcher) {
+        dbExpectations.computeIfAbsent(table, ignored -> new ArrayList<>())
+                .add(ConsistencyChecker.getInstance().expect(table, since, matcher,
+                        ConfigManager.getDuration(DB_TIMEOUT_KEY, DEFAULT_DB_TIMEOUT)));
+        return this;
     }
-    
+
+    /**
+     * Waits until every expected row has appeared, failing the test on the first one that times out
+     */
     @Override
     public void validateDBEntities() {
         log.info("Validating database entities");
-        // Database validation logic can be added here
+        dbExpectations.forEach((table, expectations) ->
+                expectations.forEach(expectation -> ConsistencyChecker.await(table, expectation)));
+    }
+
+    /**
+     * @return true when a schema is registered for the endpoint
+     */
+    public static boolean hasSchema(ServiceEndpoints endpoint) {
+        return schemaFor(endpoint).isPresent();
+    }
+
+    /**
+     * @return every violation of the endpoint schema, empty when the node is valid or there is no schema
+     */
+    public static List<SchemaViolation> validate(ServiceEndpoints endpoint, JsonNode node) {
+        Optional<JsonSchema> schema = schemaFor(endpoint);
+        if (schema.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ProcessingReport report;
+        try {
+            report = schema.get().validate(node);
+        } catch (ProcessingException e) {
+            throw new IllegalStateException("Schema for " + endpoint + " could not be applied: " + e.getMessage(), e);
+        }
+        if (report.isSuccess()) {
+            return Collections.emptyList();
+        }
+        List<SchemaViolation> violations = new ArrayList<>();
+        for (ProcessingMessage message : report) {
+            if (message.getLogLevel() != LogLevel.ERROR && message.getLogLevel() != LogLevel.FATAL) {
+                continue;
+            }
+            JsonNode details = message.asJson();
+            violations.add(new SchemaViolation(details.path("instance").path("pointer").asText(""),
+                    details.path("keyword").asText("schema"), message.getMessage()));
+        }
+        return violations;
     }
 
+    /**
+     * Fails the test with one line per violating field when the node does not match the endpoint schema
+     */
+    public static void assertValid(ServiceEndpoints endpoint, JsonNode node) {
+        List<SchemaViolation> violations = validate(endpoint, node);
+        if (!violations.isEmpty()) {
+            Assert.fail("Response does not match schema of " + endpoint + ":\n" + violations.stream()
+                    .map(SchemaViolation::toString)
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+
+    private static Optional<JsonSchema> schemaFor(ServiceEndpoints endpoint) {
+        Optional<JsonSchema> schema = SCHEMAS.get(endpoint);
+        if (schema == null) {
+            schema = SCHEMAS.computeIfAbsent(endpoint, ResponseValidators::loadSchema);
+        }
+        return schema;
+    }
+
+    private static Optional<JsonSchema> loadSchema(ServiceEndpoints endpoint) {
+        String resource = SCHEMA_LOCATION + endpoint.name() + ".json";
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = ResponseValidators.class.getClassLoader();
+        }
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            JsonSchema schema = SCHEMA_FACTORY.getJsonSchema(OBJECT_MAPPER.readTree(in));
+            log.debug("Compiled response schema {}", resource);
+            return Optional.of(schema);
+        } catch (IOException | ProcessingException e) {
+            throw new IllegalStateException("Invalid response schema " + resource + ": " + e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package in.test.backend.utils;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single result row. Column labels and their positions are resolved once per query
+ * in a {@link Schema} that every row of the result shares, so a row only carries its values.
+ */
+public final class Row {
+
+    private final Schema schema;
+    private final Object[] values;
+
+    Row(Schema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+    }
+
+    /**
+     * @param columnIndex 1-based column index, as in JDBC
+     */
+    public Object get(int columnIndex) {
+        return values[columnIndex - 1];
+    }
+
+    public Object get(String columnLabel) {
+        return values[schema.indexOf(columnLabel)];
+    }
+
+    public String getString(String columnLabel) {
+        Object value = get(columnLabel);
+        return value == null ? null : value.toString();
+    }
+
+    public Long getLong(String columnLabel) {
+        Object value = get(columnLabel);
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    public List<String> getColumnLabels() {
+        return schema.labels;
+    }
+
+    public int getColumnCount() {
+        return values.length;
+    }
+
+    /**
+     * Copies the row into a map keyed by column label, for callers of the list based API.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            map.put(schema.labels.get(i), values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    /**
+     * Column label to position mapping shared by all rows of one result set.
+     */
+    static final class Schema {
+
+        private final List<String> labels;
+        private final Map<String, Integer> indexByLabel;
+
+        Schema(ResultSetMetaData metaData) throws SQLException {
+            int columnCount = metaData.getColumnCount();
+            String[] columnLabels = new String[columnCount];
+            indexByLabel = new HashMap<>(columnCount * 2);
+            for (int i = 0; i < columnCount; i++) {
+                columnLabels[i] = metaData.getColumnLabel(i + 1);
+                indexByLabel.putIfAbsent(columnLabels[i], i);
+            }
+            labels = Collections.unmodifiableList(Arrays.asList(columnLabels));
+        }
+
+        int size() {
+            return labels.size();
+        }
+
+        int indexOf(String columnLabel) {
+            Integer index = indexByLabel.get(columnLabel);
+            if (index == null) {
+                throw new IllegalArgumentException("Unknown column: " + columnLabel);
+            }
+            return index;
+        }
+
+        String label(int index) {
+            return labels.get(index);
+        }
+    }
+}
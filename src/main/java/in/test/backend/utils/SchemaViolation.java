@@ -0,0 +1,31 @@
+package in.test.backend.utils;
+
+import lombok.Getter;
+
+/**
+ * One JSON schema violation in a response, located by JSON pointer
+ */
+@Getter
+public class SchemaViolation {
+
+    /**
+     * JSON pointer of the offending value, {@code ""} for the document root
+     */
+    private final String path;
+    /**
+     * Schema keyword that failed, such as {@code type} or {@code required}
+     */
+    private final String keyword;
+    private final String message;
+
+    public SchemaViolation(String path, String keyword, String message) {
+        this.path = path;
+        this.keyword = keyword;
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return (path.isEmpty() ? "/" : path) + ": " + message + " (" + keyword + ")";
+    }
+}
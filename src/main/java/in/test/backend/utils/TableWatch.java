@@ -0,0 +1,100 @@
+package in.test.backend.utils;
+
+import lombok.Getter;
+
+import java.util.regex.Pattern;
+
+/**
+ * A table watched by {@link ConsistencyChecker}, read in order of a monotonic watermark column
+ * <p>
+ * The watermark column must be indexed: either an auto-increment key, compared with {@code >}, or an
+ * updated-at timestamp. Many rows can share a timestamp, so an updated-at table is paged by the timestamp
+ * and a unique key together, {@code (updated_at, id) > (?, ?)}, and needs an index on both columns.
+ */
+@Getter
+public final class TableWatch {
+
+    public enum WatermarkType {
+        AUTO_INCREMENT,
+        UPDATED_AT
+    }
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z0-9_$]+(\\.[A-Za-z0-9_$]+)?");
+
+    private final DBHost dbHost;
+    private final String dbName;
+    private final String table;
+    private final String watermarkColumn;
+    // Unique column that orders rows sharing a watermark; the watermark itself for auto-increment keys
+    private final String keyColumn;
+    private final WatermarkType watermarkType;
+
+    private TableWatch(DBHost dbHost, String dbName, String table, String watermarkColumn, String keyColumn,
+                       WatermarkType watermarkType) {
+        this.dbHost = dbHost;
+        this.dbName = dbName;
+        this.table = checkIdentifier(table);
+        this.watermarkColumn = checkIdentifier(watermarkColumn);
+        this.keyColumn = checkIdentifier(keyColumn);
+        this.watermarkType = watermarkType;
+    }
+
+    /**
+     * Watches a table by its auto-increment key
+     */
+    public static TableWatch autoIncrement(DBHost dbHost, String dbName, String table, String idColumn) {
+        return new TableWatch(dbHost, dbName, table, idColumn, idColumn, WatermarkType.AUTO_INCREMENT);
+    }
+
+    /**
+     * Watches a table by a column the application sets on every insert and update
+     * @param keyColumn unique column, usually the primary key, that orders rows with the same timestamp
+     */
+    public static TableWatch updatedAt(DBHost dbHost, String dbName, String table, String updatedAtColumn,
+                                       String keyColumn) {
+        return new TableWatch(dbHost, dbName, table, updatedAtColumn, keyColumn, WatermarkType.UPDATED_AT);
+    }
+
+    String key() {
+        return dbHost.name() + "/" + dbName + "/" + table;
+    }
+
+    String comparator() {
+        return watermarkType == WatermarkType.AUTO_INCREMENT ? ">" : ">=";
+    }
+
+    /**
+     * @return true when rows sharing a watermark are told apart by the key column
+     */
+    boolean hasTiebreaker() {
+        return !keyColumn.equals(watermarkColumn);
+    }
+
+    String orderBy() {
+        return hasTiebreaker() ? watermarkColumn + ", " + keyColumn : watermarkColumn;
+    }
+
+    // Table and column names are put into the SQL text, so only plain identifiers are accepted
+    private static String checkIdentifier(String identifier) {
+        if (identifier == null || !IDENTIFIER.matcher(identifier).matches()) {
+            throw new IllegalArgumentException("Not a plain SQL identifier: " + identifier);
+        }
+        return identifier;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TableWatch && key().equals(((TableWatch) other).key())
+                && watermarkColumn.equals(((TableWatch) other).watermarkColumn);
+    }
+
+    @Override
+    public int hashCode() {
+        return key().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key() + " by " + watermarkColumn;
+    }
+}
@@ -0,0 +1,45 @@
+package in.test.backend.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread creation shared by the framework's executors
+ * <p>
+ * Framework threads are daemons, so a pool that is never shut down does not keep the JVM running
+ * after the suite, and they are numbered per factory so thread dumps show which pool they belong to.
+ */
+public final class Threads {
+
+    private Threads() {
+    }
+
+    /**
+     * @param prefix thread name prefix; threads are named {@code prefix1}, {@code prefix2}, ...
+     * @return factory of daemon threads
+     */
+    public static ThreadFactory daemonFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Looked up reflectively, as the build targets Java 17
+     * @return a virtual-thread-per-task executor when the runtime provides one (Java 21+), otherwise null
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}